@@ -0,0 +1,66 @@
+package me.dblab.twitterclone.common;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDto;
+import me.dblab.twitterclone.account.Role;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetDto;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO -> 엔티티 변환 비용. ModelMapper 와 정적 매퍼(Tweet.from, Account.from)를 비교한다.
+ * 할당량은 -prof gc 로 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private TweetDto tweetDto;
+    private AccountDto accountDto;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        tweetDto = new TweetDto("경성대학교 #졸업 트윗");
+        accountDto = AccountDto.builder()
+                .username("testUsername")
+                .nickname("testNickname")
+                .password("{bcrypt}encoded")
+                .email("test@gmail.com")
+                .createdDate(LocalDateTime.now())
+                .roles(Collections.singletonList(Role.USER))
+                .build();
+        // 첫 호출에서 만들어지는 TypeMap 은 측정에서 뺀다.
+        modelMapper.map(tweetDto, Tweet.class);
+        modelMapper.map(accountDto, Account.class);
+    }
+
+    @Benchmark
+    public Tweet tweetModelMapper() {
+        return modelMapper.map(tweetDto, Tweet.class);
+    }
+
+    @Benchmark
+    public Tweet tweetStatic() {
+        return Tweet.from(tweetDto);
+    }
+
+    @Benchmark
+    public Account accountModelMapper() {
+        return modelMapper.map(accountDto, Account.class);
+    }
+
+    @Benchmark
+    public Account accountStatic() {
+        return Account.from(accountDto);
+    }
+}
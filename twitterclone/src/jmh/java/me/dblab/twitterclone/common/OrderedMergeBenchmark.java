@@ -0,0 +1,86 @@
+package me.dblab.twitterclone.common;
+
+import me.dblab.twitterclone.tweet.Tweet;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 팔로잉 계정별로 정렬된 트윗 스트림을 홈 피드 한 페이지로 병합하는 비용 비교.
+ * mergeWith: 기존 방식(도착 순서, 전체 이력 소비), mergeAndSort: 전체 이력 정렬 후 limit, orderedMerge: OrderedMerge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderedMergeBenchmark {
+
+    private static final Comparator<Tweet> LATEST_FIRST = Comparator.comparing(Tweet::getCreatedDate)
+            .thenComparing(Tweet::getId)
+            .reversed();
+
+    @Param({"10", "100", "1000"})
+    public int followees;
+
+    @Param({"200"})
+    public int tweetsPerFollowee;
+
+    @Param({"20"})
+    public int limit;
+
+    private List<List<Tweet>> histories;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        histories = new ArrayList<>(followees);
+        for (int f = 0; f < followees; f++) {
+            List<Tweet> history = new ArrayList<>(tweetsPerFollowee);
+            for (int t = 0; t < tweetsPerFollowee; t++) {
+                history.add(Tweet.builder()
+                        .id(f + "-" + t)
+                        .authorEmail("followee" + f + "@gmail.com")
+                        .createdDate(now.minusSeconds(ThreadLocalRandom.current().nextInt(1_000_000)))
+                        .build());
+            }
+            history.sort(LATEST_FIRST);
+            histories.add(history);
+        }
+    }
+
+    @Benchmark
+    public List<Tweet> mergeWith() {
+        return Flux.fromIterable(histories)
+                .flatMap(Flux::fromIterable)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Tweet> mergeAndSort() {
+        return Flux.fromIterable(histories)
+                .flatMap(Flux::fromIterable)
+                .sort(LATEST_FIRST)
+                .take(limit)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Tweet> orderedMerge() {
+        List<Flux<Tweet>> sources = histories.stream()
+                .map(Flux::fromIterable)
+                .collect(Collectors.toList());
+        return OrderedMerge.merge(LATEST_FIRST, limit, sources)
+                .collectList()
+                .block();
+    }
+}
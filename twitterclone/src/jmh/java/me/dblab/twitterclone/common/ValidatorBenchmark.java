@@ -0,0 +1,113 @@
+package me.dblab.twitterclone.common;
+
+import me.dblab.twitterclone.account.AccountDto;
+import me.dblab.twitterclone.account.AccountValidator;
+import me.dblab.twitterclone.comment.CommentDto;
+import me.dblab.twitterclone.comment.CommentValidator;
+import me.dblab.twitterclone.explore.ExploreDto;
+import me.dblab.twitterclone.explore.ExploreValidator;
+import me.dblab.twitterclone.tweet.TweetDto;
+import me.dblab.twitterclone.tweet.TweetValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 요청 검증 비용. 이벤트 루프에서 실행되므로 어떤 입력에도 길게 붙잡혀서는 안 된다.
+ * input 별로 정상 입력(normal)과 정규식/trim 에 불리한 입력(adversarial)을 넣는다.
+ * accountLegacy 는 기존 AccountValidator 방식(매번 Pattern.matches, lookahead 비밀번호 정규식)이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private static final String REGEX_EMAIL = "^[A-Za-z0-9_\\.\\-]+@[A-Za-z0-9\\-]+\\.[A-Za-z0-9\\-]+";
+    private static final String REGEX_PASSWORD = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[$@$!%*?&])[A-Za-z\\d$@$!%*?&]{8,}";
+
+    @Param({"normal", "adversarial"})
+    private String input;
+
+    private Validator accountValidator;
+    private Validator tweetValidator;
+    private Validator commentValidator;
+    private Validator exploreValidator;
+
+    private AccountDto accountDto;
+    private TweetDto tweetDto;
+    private CommentDto commentDto;
+    private ExploreDto exploreDto;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setRegexEmail(REGEX_EMAIL);
+        accountValidator = new AccountValidator(appProperties);
+        tweetValidator = new TweetValidator();
+        commentValidator = new CommentValidator();
+        exploreValidator = new ExploreValidator();
+
+        boolean adversarial = "adversarial".equals(input);
+        accountDto = new AccountDto();
+        accountDto.setUsername("testUsername");
+        accountDto.setNickname("testNickname");
+        // 비밀번호: 대문자가 마지막에만 나와 lookahead 가 끝까지 훑는다. 이메일: 마지막 '.' 이 없어 끝에서 되돌아간다.
+        accountDto.setPassword(adversarial ? repeat('a', 120) + "1!A" : "Didrltjr3!@");
+        accountDto.setEmail(adversarial ? repeat('a', 120) + "@" + repeat('b', 130) : "test@gmail.com");
+
+        // 본문: 앞뒤 공백이 길어 trim 뒤에야 길이를 알 수 있다.
+        String content = adversarial ? repeat(' ', 5000) + repeat('가', 255) + repeat(' ', 5000) : "경성대학교 #졸업 트윗";
+        tweetDto = new TweetDto();
+        tweetDto.setContent(content);
+        commentDto = new CommentDto();
+        commentDto.setContent(content);
+        exploreDto = new ExploreDto();
+        exploreDto.setKeyword(adversarial ? repeat(' ', 10000) : "경성대학교");
+    }
+
+    @Benchmark
+    public Errors account() {
+        return validate(accountValidator, accountDto);
+    }
+
+    @Benchmark
+    public boolean accountLegacy() {
+        return Pattern.matches(REGEX_PASSWORD, accountDto.getPassword().trim())
+                && Pattern.matches(REGEX_EMAIL, accountDto.getEmail().trim());
+    }
+
+    @Benchmark
+    public Errors tweet() {
+        return validate(tweetValidator, tweetDto);
+    }
+
+    @Benchmark
+    public Errors comment() {
+        return validate(commentValidator, commentDto);
+    }
+
+    @Benchmark
+    public Errors explore() {
+        return validate(exploreValidator, exploreDto);
+    }
+
+    private Errors validate(Validator validator, Object target) {
+        Errors errors = new BeanPropertyBindingResult(target, "target");
+        validator.validate(target, errors);
+        return errors;
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package me.dblab.twitterclone.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.Role;
+import me.dblab.twitterclone.common.AppProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static me.dblab.twitterclone.common.Constants.AUTHORITIES_KEY;
+
+/**
+ * 요청 한 건의 JWT 인증 비용 비교.
+ * parseFourTimes: 기존 AuthenticationManager (토큰을 네 번 파싱), parseOnce: TokenProvider.verify, cached: TokenCache 를 거친 AuthenticationManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private TokenProvider tokenProvider;
+    private AuthenticationManager authenticationManager;
+    private String token;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new TokenProvider();
+        authenticationManager = new AuthenticationManager(new TokenCache(tokenProvider, new AppProperties()));
+        token = tokenProvider.generateToken(Account.builder()
+                .email("test@gmail.com")
+                .roles(Collections.singletonList(Role.USER))
+                .build());
+        authentication = new UsernamePasswordAuthenticationToken(token, token);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Authentication parseFourTimes() throws Exception {
+        String username = tokenProvider.getUsernameFromToken(token);
+        if (username != null && tokenProvider.isTokenExpired(token)) {
+            Claims claims = tokenProvider.getAllClaimsFromToken(token);
+            List<String> roles = claims.get(AUTHORITIES_KEY, List.class);
+            List<SimpleGrantedAuthority> authorities = roles.stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+            return new UsernamePasswordAuthenticationToken(username, null, authorities);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Authentication parseOnce() {
+        VerifiedToken verified = tokenProvider.verify(token);
+        return new UsernamePasswordAuthenticationToken(verified.getUsername(), null, verified.getAuthorities());
+    }
+
+    @Benchmark
+    public Authentication cached() {
+        return authenticationManager.authenticate(authentication).block();
+    }
+}
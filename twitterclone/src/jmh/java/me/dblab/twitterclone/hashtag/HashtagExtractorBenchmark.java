@@ -0,0 +1,52 @@
+package me.dblab.twitterclone.hashtag;
+
+import org.openjdk.jmh.annotations.*;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 트윗 한 건의 해시태그 추출 비용 비교.
+ * splitAndRegex: 기존 TweetService.validateHashTag (split + 토큰마다 String.matches), scan: HashtagExtractor.
+ * 본문은 최대 길이(255자)까지 단어 열 개 중 세 개가 태그가 되도록 채운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashtagExtractorBenchmark {
+
+    private static final String REGEX_SPECIAL_CHAR = "^[ㄱ-ㅎ가-힣a-zA-Z0-9]*$";
+    private static final String[] WORDS = {"#경성대학교", "오늘", "twitter", "클론을", "만들었다", "#spring", "webflux", "#몽고DB", "그리고", "reactor!"};
+
+    @Param({"16", "64", "128", "255"})
+    private int length;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; builder.length() < length; i++) {
+            builder.append(WORDS[i % WORDS.length]).append(' ');
+        }
+        content = builder.substring(0, length);
+    }
+
+    @Benchmark
+    public Set<String> splitAndRegex() {
+        return Arrays.stream(content.split("\\s"))
+                .filter(hashTag -> hashTag.startsWith("#"))
+                .map(hashTag -> hashTag.substring(1))
+                .filter(hashTag -> hashTag.matches(REGEX_SPECIAL_CHAR))
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public Set<String> scan() {
+        return HashtagExtractor.extract(content);
+    }
+}
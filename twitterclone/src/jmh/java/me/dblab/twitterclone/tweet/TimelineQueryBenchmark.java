@@ -0,0 +1,117 @@
+package me.dblab.twitterclone.tweet;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.common.OrderedMerge;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import reactor.core.publisher.Flux;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 홈 피드 첫 페이지를 팔로잉 계정별 쿼리 + OrderedMerge 로 읽는 방식과 authorEmail $in 쿼리로 읽는 방식 비교.
+ * 실행 중인 MongoDB 가 필요하며 주소는 -Dbenchmark.mongo.uri 로 지정한다.
+ * 팔로잉 계정별 쿼리는 followees 개의 쿼리를 동시에 보내므로 기본 주소에서 드라이버 대기열을 늘려 둔다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimelineQueryBenchmark {
+
+    private static final String DATABASE = "twitterclone-benchmark";
+    private static final String DEFAULT_URI = "mongodb://localhost:27017/?waitQueueMultiple=200";
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final Comparator<Tweet> LATEST_FIRST = Comparator.comparing(Tweet::getCreatedDate)
+            .thenComparing(Tweet::getId)
+            .reversed();
+
+    @Param({"10", "1000", "10000"})
+    public int followees;
+
+    @Param({"20"})
+    public int tweetsPerFollowee;
+
+    @Param({"20"})
+    public int limit;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private TweetRepositoryCustom tweetRepository;
+    private List<String> authorEmails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo.uri", DEFAULT_URI));
+        reactiveMongoTemplate = new ReactiveMongoTemplate(mongoClient, DATABASE);
+        tweetRepository = new TweetRepositoryCustomImpl(reactiveMongoTemplate);
+
+        reactiveMongoTemplate.dropCollection(Tweet.class).block();
+        reactiveMongoTemplate.indexOps(Tweet.class)
+                .ensureIndex(new Index().on("authorEmail", Sort.Direction.ASC).on("createdDate", Sort.Direction.DESC).named("author_created"))
+                .block();
+
+        LocalDateTime now = LocalDateTime.now();
+        authorEmails = new ArrayList<>(followees);
+        for (int f = 0; f < followees; f++) {
+            authorEmails.add("followee" + f + "@gmail.com");
+        }
+        Flux.fromIterable(authorEmails)
+                .flatMapIterable(email -> {
+                    List<Tweet> tweets = new ArrayList<>(tweetsPerFollowee);
+                    for (int t = 0; t < tweetsPerFollowee; t++) {
+                        tweets.add(Tweet.builder()
+                                .authorEmail(email)
+                                .content("benchmark")
+                                .createdDate(now.minusSeconds(ThreadLocalRandom.current().nextInt(1_000_000)))
+                                .build());
+                    }
+                    return tweets;
+                })
+                .buffer(INSERT_BATCH_SIZE)
+                .concatMap(tweets -> reactiveMongoTemplate.insert(tweets, Tweet.class))
+                .then()
+                .block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reactiveMongoTemplate.dropCollection(Tweet.class).block();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public List<Tweet> perFollowee() {
+        List<Flux<Tweet>> sources = authorEmails.stream()
+                .map(email -> tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(email, Cursor.FIRST, limit))
+                .collect(Collectors.toList());
+        return OrderedMerge.merge(LATEST_FIRST, limit, sources)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Tweet> inQuery() {
+        return Flux.fromIterable(authorEmails)
+                .buffer(chunkSize)
+                .map(chunk -> tweetRepository.findAllByAuthorEmailIn(chunk, Cursor.FIRST, limit))
+                .collectList()
+                .flatMapMany(sources -> OrderedMerge.merge(LATEST_FIRST, limit, sources))
+                .collectList()
+                .block();
+    }
+}
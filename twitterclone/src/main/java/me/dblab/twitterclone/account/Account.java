@@ -2,9 +2,11 @@ package me.dblab.twitterclone.account;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import me.dblab.twitterclone.common.SearchTerms;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -13,8 +15,11 @@ import java.util.List;
 @Builder @Document
 public class Account {
 
+    public static final String SEQUENCE = "account";
+
     @Id
     private String id;
+    private Long accountNo;
     private String username;
     private String nickname;
     @JsonIgnore
@@ -23,11 +28,28 @@ public class Account {
     private Date birthDate;
     private LocalDateTime createdDate;
     private List<Role> roles;
+    private long followerCount;
+    private long followingCount;
+    @JsonIgnore
+    private List<String> searchTerms;
+
+    public static Account from(AccountDto accountDto) {
+        Account account = new Account();
+        account.setUsername(accountDto.getUsername());
+        account.setNickname(accountDto.getNickname());
+        account.setPassword(accountDto.getPassword());
+        account.setEmail(accountDto.getEmail());
+        account.setBirthDate(accountDto.getBirthDate());
+        account.setCreatedDate(accountDto.getCreatedDate());
+        account.setRoles(accountDto.getRoles() == null ? null : new ArrayList<>(accountDto.getRoles()));
+        return account;
+    }
 
     public void update(Account account) {
         this.username = account.getUsername();
         this.nickname = account.getNickname();
         this.password = account.getPassword();
         this.email = account.getEmail();
+        this.searchTerms = SearchTerms.of(this.username, this.nickname);
     }
 }
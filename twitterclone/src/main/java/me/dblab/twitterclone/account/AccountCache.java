@@ -0,0 +1,38 @@
+package me.dblab.twitterclone.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.dblab.twitterclone.common.AppProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.util.function.Function;
+
+/**
+ * email 로 조회한 Account 를 요청 간에 공유하는 캐시.
+ * 크기(accountCacheSize)와 TTL(accountCacheTtl)로 제한하며, 계정 수정/삭제 시 invalidate 한다.
+ */
+@Component
+public class AccountCache {
+
+    private final Cache<String, Account> accounts;
+
+    public AccountCache(AppProperties appProperties) {
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(appProperties.getAccountCacheSize())
+                .expireAfterWrite(appProperties.getAccountCacheTtl())
+                .build();
+    }
+
+    public Mono<Account> get(String email, Function<String, Mono<Account>> loader) {
+        Account cached = accounts.getIfPresent(email);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loader.apply(email)
+                .doOnNext(account -> accounts.put(email, account));
+    }
+
+    public void invalidate(String email) {
+        accounts.invalidate(email);
+    }
+}
@@ -0,0 +1,94 @@
+package me.dblab.twitterclone.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.dblab.twitterclone.common.AppProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * accountNo <-> email 사전. 저장소에는 accountNo 만 두고 API 경계에서 email 로 바꿀 때 쓴다.
+ * 양방향 모두 accountDirectorySize 개까지 캐시하고, 캐시에 없는 번호는 $in 한 번으로 읽는다.
+ * email 이 바뀌거나 계정이 삭제되면 invalidate 한다.
+ */
+@Component
+public class AccountDirectory {
+
+    private final AccountRepository accountRepository;
+    private final Cache<Long, String> emails;
+    private final Cache<String, Long> numbers;
+
+    public AccountDirectory(AccountRepository accountRepository, AppProperties appProperties) {
+        this.accountRepository = accountRepository;
+        this.emails = Caffeine.newBuilder()
+                .maximumSize(appProperties.getAccountDirectorySize())
+                .build();
+        this.numbers = Caffeine.newBuilder()
+                .maximumSize(appProperties.getAccountDirectorySize())
+                .build();
+    }
+
+    public Mono<Long> numberOf(String email) {
+        Long cached = numbers.getIfPresent(email);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return accountRepository.findByEmail(email)
+                .filter(account -> account.getAccountNo() != null)
+                .doOnNext(this::put)
+                .map(Account::getAccountNo);
+    }
+
+    public Mono<String> emailOf(Long accountNo) {
+        String cached = emails.getIfPresent(accountNo);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return accountRepository.findEmailsByAccountNoIn(Collections.singletonList(accountNo))
+                .next()
+                .doOnNext(this::put)
+                .map(Account::getEmail);
+    }
+
+    /**
+     * 주어진 순서대로 email 을 내보낸다. 없는 계정은 건너뛴다.
+     */
+    public Flux<String> emailsOf(Collection<Long> accountNos) {
+        Map<Long, String> cached = emails.getAllPresent(accountNos);
+        List<Long> missing = accountNos.stream()
+                .filter(accountNo -> !cached.containsKey(accountNo))
+                .distinct()
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return Flux.fromIterable(accountNos).map(cached::get);
+        }
+        return accountRepository.findEmailsByAccountNoIn(missing)
+                .doOnNext(this::put)
+                .collectMap(Account::getAccountNo, Account::getEmail, () -> new HashMap<>(cached))
+                .flatMapIterable(resolved -> accountNos.stream()
+                        .map(resolved::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    public void put(Account account) {
+        emails.put(account.getAccountNo(), account.getEmail());
+        numbers.put(account.getEmail(), account.getAccountNo());
+    }
+
+    public void invalidate(Account account) {
+        numbers.invalidate(account.getEmail());
+        if (account.getAccountNo() != null) {
+            emails.invalidate(account.getAccountNo());
+        }
+    }
+}
@@ -3,9 +3,10 @@ package me.dblab.twitterclone.account;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Collection;
 
-public interface AccountRepository extends ReactiveMongoRepository<Account, String> {
+public interface AccountRepository extends ReactiveMongoRepository<Account, String>, AccountRepositoryCustom {
     Mono<Account> findByEmail(String email);
     Flux<Account> findAllByEmail(String email);
-    Flux<Object> findAllByUsernameContainingOrNicknameContainingOrderByCreatedDate(String keyword, String keyword2);
+    Flux<Account> findAllByEmailIn(Collection<String> emails);
 }
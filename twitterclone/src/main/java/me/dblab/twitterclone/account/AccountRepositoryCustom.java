@@ -0,0 +1,14 @@
+package me.dblab.twitterclone.account;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountRepositoryCustom {
+    Flux<Account> search(List<String> terms, int page, int limit);
+    Flux<Account> findEmailsByAccountNoIn(Collection<Long> accountNos);
+    Mono<Void> incrementFollowCounts(Long followerNo, List<Long> followingNos, int delta);
+    Mono<Account> updateProfile(Account account);
+    Flux<Account> findEmailsByFollowerCountGreaterThan(long threshold);
+}
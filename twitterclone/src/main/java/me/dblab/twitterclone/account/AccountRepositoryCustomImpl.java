@@ -0,0 +1,82 @@
+package me.dblab.twitterclone.account;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.SearchTerms;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Account> search(List<String> terms, int page, int limit) {
+        if (terms.isEmpty()) {
+            return Flux.empty();
+        }
+        return reactiveMongoTemplate.find(SearchTerms.textQuery(terms, page, limit), Account.class);
+    }
+
+    /**
+     * accountNo 와 email 만 읽는다. AccountDirectory 가 캐시에 없는 번호를 한 번에 풀 때 쓴다.
+     */
+    @Override
+    public Flux<Account> findEmailsByAccountNoIn(Collection<Long> accountNos) {
+        Query query = Query.query(Criteria.where("accountNo").in(accountNos));
+        query.fields().include("accountNo").include("email");
+        return reactiveMongoTemplate.find(query, Account.class);
+    }
+
+    /**
+     * 팔로우 관계가 생기거나(delta = 1) 없어질 때(delta = -1) 양쪽 계정의 카운터를 $inc 한 번의 bulk write 로 갱신한다.
+     */
+    @Override
+    public Mono<Void> incrementFollowCounts(Long followerNo, List<Long> followingNos, int delta) {
+        if (followingNos.isEmpty()) {
+            return Mono.empty();
+        }
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(followingNos.size() + 1);
+        updates.add(new UpdateOneModel<>(Filters.eq("accountNo", followerNo), Updates.inc("followingCount", (long) delta * followingNos.size())));
+        followingNos.forEach(followingNo ->
+                updates.add(new UpdateOneModel<>(Filters.eq("accountNo", followingNo), Updates.inc("followerCount", (long) delta))));
+        return Mono.from(reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Account.class))
+                        .bulkWrite(updates, new BulkWriteOptions().ordered(false)))
+                .then();
+    }
+
+    /**
+     * 프로필 필드만 $set 한다. followerCount/followingCount 는 $inc 로만 바뀌므로 읽어 둔 문서를 통째로 저장하지 않는다.
+     */
+    @Override
+    public Mono<Account> updateProfile(Account account) {
+        return reactiveMongoTemplate.findAndModify(Query.query(Criteria.where("id").is(account.getId())),
+                new Update().set("username", account.getUsername())
+                        .set("nickname", account.getNickname())
+                        .set("password", account.getPassword())
+                        .set("email", account.getEmail())
+                        .set(SearchTerms.FIELD, account.getSearchTerms()),
+                FindAndModifyOptions.options().returnNew(true),
+                Account.class);
+    }
+
+    @Override
+    public Flux<Account> findEmailsByFollowerCountGreaterThan(long threshold) {
+        Query query = Query.query(Criteria.where("followerCount").gt(threshold));
+        query.fields().include("accountNo").include("email");
+        return reactiveMongoTemplate.find(query, Account.class);
+    }
+}
@@ -1,9 +1,13 @@
 package me.dblab.twitterclone.account;
 
 import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.cleanup.CascadeCleaner;
+import me.dblab.twitterclone.common.SearchTerms;
+import me.dblab.twitterclone.common.Sequence;
 import me.dblab.twitterclone.config.jwt.Jwt;
 import me.dblab.twitterclone.config.jwt.TokenProvider;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,7 +17,6 @@ import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
@@ -27,40 +30,79 @@ public class AccountService implements ReactiveUserDetailsService {
 
     private final AccountRepository accountRepository;
     private final TokenProvider tokenProvider;
-    private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final PasswordHasher passwordHasher;
+    private final AccountCache accountCache;
+    private final AccountDirectory accountDirectory;
+    private final Sequence sequence;
+    private final CascadeCleaner cascadeCleaner;
+    private final LoginRateLimiter loginRateLimiter;
 
     Mono<Account> getAccount(String id) {
         return accountRepository.findById(id);
     }
 
     public Mono<ResponseEntity> saveAccount(AccountDto accountDto) {
-        return Mono.just(accountDto)
-                .map(user -> modelMapper.map(setAccount(user), Account.class))
-                .flatMap(user -> accountRepository.findByEmail(user.getEmail())
-                .map(dupUser -> ResponseEntity.badRequest().build())
-                .switchIfEmpty(accountRepository.save(user)
-                        .map(saveUser -> new ResponseEntity<>(saveUser, HttpStatus.CREATED))));
+        // 이미 가입된 이메일이면 해시하지 않고 바로 거절한다.
+        return accountRepository.findByEmail(accountDto.getEmail())
+                .<ResponseEntity>map(dupUser -> ResponseEntity.badRequest().build())
+                .switchIfEmpty(Mono.defer(() -> passwordHasher.encode(accountDto.getPassword()))
+                        .map(encodedPassword -> Account.from(setAccount(accountDto, encodedPassword)))
+                        .map(user -> {
+                            user.setSearchTerms(SearchTerms.of(user.getUsername(), user.getNickname()));
+                            return user;
+                        })
+                        .flatMap(user -> sequence.next(Account.SEQUENCE).map(accountNo -> {
+                            user.setAccountNo(accountNo);
+                            return user;
+                        }))
+                        .flatMap(accountRepository::save)
+                        .map(saveUser -> new ResponseEntity<>(saveUser, HttpStatus.CREATED)))
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(PasswordHasherBusyException.class, e -> Mono.just(tooManyRequests()));
     }
 
     public Mono<ResponseEntity<Jwt>> login(AccountDto accountDto) {
+        // 같은 이메일로 시도가 몰리면 Mongo 조회와 비밀번호 검증 전에 거절한다.
+        long retryAfter = loginRateLimiter.tryEmail(accountDto.getEmail());
+        if (retryAfter > 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .build());
+        }
         return Mono.just(accountDto)
                 .flatMap(account1 -> accountRepository.findByEmail(accountDto.getEmail()))
-                .filter(account1 -> passwordEncoder.matches(accountDto.getPassword(), account1.getPassword()))
+                .filterWhen(account1 -> passwordHasher.matches(accountDto.getPassword(), account1.getPassword()))
                 .map(account1 -> new ResponseEntity<>(new Jwt(tokenProvider.generateToken(account1)), HttpStatus.OK))
-                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(PasswordHasherBusyException.class, e -> Mono.just(tooManyRequests()));
     }
 
     Mono<ResponseEntity> updateAccount(String id, AccountDto accountDto) {
         return Mono.just(accountDto)
                 .flatMap(updatedUser -> accountRepository.findById(id)
-                        .map(user -> {
-                            updatedUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
-                            user.update(modelMapper.map(updatedUser, Account.class));
-                            return user;
+                        .flatMap(user -> {
+                            Account previous = Account.builder()
+                                    .email(user.getEmail())
+                                    .accountNo(user.getAccountNo())
+                                    .build();
+                            return passwordHasher.encode(updatedUser.getPassword())
+                                    .map(encodedPassword -> {
+                                        updatedUser.setPassword(encodedPassword);
+                                        user.update(Account.from(updatedUser));
+                                        return user;
+                                    })
+                                    .flatMap(accountRepository::updateProfile)
+                                    .doOnNext(saved -> {
+                                        // 저장 전에 지우면 그 사이의 조회가 이전 값을 다시 캐시할 수 있다. email 이 바뀌었으면 이전 email 도 지운다.
+                                        accountCache.invalidate(previous.getEmail());
+                                        accountCache.invalidate(saved.getEmail());
+                                        accountDirectory.invalidate(previous);
+                                        accountDirectory.invalidate(saved);
+                                    });
                         })
-                        .flatMap(accountRepository::save)
-                        .map(res -> new ResponseEntity<>(res, HttpStatus.OK))
+                        .<ResponseEntity>map(res -> new ResponseEntity<>(res, HttpStatus.OK))
+                        .onErrorResume(DuplicateKeyException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                        .onErrorResume(PasswordHasherBusyException.class, e -> Mono.just(tooManyRequests()))
                         .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()))
                 );
     }
@@ -68,7 +110,14 @@ public class AccountService implements ReactiveUserDetailsService {
     public Mono<ResponseEntity<Void>> deleteAccount(String id) {
         return findCurrentUser()
                 .filter(account -> account.getId().equals(id))
-                .flatMap(account -> accountRepository.delete(account).then(Mono.just(new ResponseEntity<Void>(HttpStatus.OK))))
+                // 작업을 먼저 저장하므로 여기서 계정을 지우다 실패해도 정리 작업이 다시 지운다.
+                .flatMap(account -> cascadeCleaner.deleteAccount(account)
+                        .then(accountRepository.delete(account))
+                        .doOnTerminate(() -> {
+                            accountCache.invalidate(account.getEmail());
+                            accountDirectory.invalidate(account);
+                        })
+                        .then(Mono.just(new ResponseEntity<Void>(HttpStatus.OK))))
                 .switchIfEmpty(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
     }
 
@@ -90,14 +139,29 @@ public class AccountService implements ReactiveUserDetailsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 인증된 사용자의 Account. 같은 요청 안에서는 Reactor Context 의 CurrentAccount 로 한 번만 조회하고,
+     * 요청 간에는 AccountCache 를 거친다.
+     */
     public Mono<Account> findCurrentUser() {
+        return Mono.subscriberContext()
+                .flatMap(context -> context.<CurrentAccount>getOrEmpty(CurrentAccount.class)
+                        .map(currentAccount -> currentAccount.get(this::loadCurrentUser))
+                        .orElseGet(this::loadCurrentUser));
+    }
+
+    private Mono<Account> loadCurrentUser() {
         return ReactiveSecurityContextHolder.getContext()
-                .flatMap(securityContext -> accountRepository.findByEmail((String) securityContext.getAuthentication().getPrincipal()))
-                .switchIfEmpty(Mono.empty());
+                .map(securityContext -> (String) securityContext.getAuthentication().getPrincipal())
+                .flatMap(email -> accountCache.get(email, accountRepository::findByEmail));
+    }
+
+    private static <T> ResponseEntity<T> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
     }
 
-    private AccountDto setAccount(AccountDto user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+    private AccountDto setAccount(AccountDto user, String encodedPassword) {
+        user.setPassword(encodedPassword);
         user.setCreatedDate(LocalDateTime.now());
         user.setRoles(Collections.singletonList(Role.USER));
 
@@ -1,18 +1,22 @@
 package me.dblab.twitterclone.account;
 
 import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.CachedPattern;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
-import java.util.regex.Pattern;
 
 @Component
 public class AccountValidator implements Validator {
 
-    private final AppProperties appProperties;
+    // RFC 5321 의 주소 길이 제한. 정규식에 넘기기 전에 입력 길이를 제한한다.
+    static final int MAX_EMAIL_LENGTH = 254;
+    static final int MAX_PASSWORD_LENGTH = 128;
+
+    private final CachedPattern emailPattern;
 
     public AccountValidator(AppProperties appProperties) {
-        this.appProperties = appProperties;
+        this.emailPattern = new CachedPattern(appProperties::getRegexEmail);
     }
 
     @Override
@@ -46,10 +50,13 @@ public class AccountValidator implements Validator {
         if(accountDto.getPassword().length() < 10)  {
             errors.rejectValue("password", "Too Short");
         }
-        if (!Pattern.matches(appProperties.getRegexPassword(), accountDto.getPassword().trim())) {
+        if(accountDto.getPassword().length() > MAX_PASSWORD_LENGTH)  {
+            errors.rejectValue("password", "Too Long");
+        } else if (!PasswordPolicy.isValid(accountDto.getPassword().trim())) {
             errors.rejectValue("password", "Not Valid Password");
         }
-        if (!Pattern.matches(appProperties.getRegexEmail(), accountDto.getEmail().trim())) {
+        String email = accountDto.getEmail().trim();
+        if (email.length() > MAX_EMAIL_LENGTH || !emailPattern.matches(email)) {
             errors.rejectValue("email", "Not Valid Email");
         }
     }
@@ -0,0 +1,23 @@
+package me.dblab.twitterclone.account;
+
+import reactor.core.publisher.Mono;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 한 요청 동안 인증된 사용자의 Account 조회 결과를 보관한다.
+ * CurrentAccountWebFilter 가 요청마다 새로 만들어 Reactor Context 에 넣는다.
+ */
+final class CurrentAccount {
+
+    private final AtomicReference<Mono<Account>> account = new AtomicReference<>();
+
+    Mono<Account> get(Supplier<Mono<Account>> loader) {
+        Mono<Account> current = account.get();
+        if (current != null) {
+            return current;
+        }
+        Mono<Account> loaded = loader.get().cache();
+        return account.compareAndSet(null, loaded) ? loaded : account.get();
+    }
+}
@@ -0,0 +1,62 @@
+package me.dblab.twitterclone.account;
+
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.RateLimiter;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 시도 횟수를 접속 주소별, 이메일별로 제한한다.
+ * 주소는 LoginRateLimitFilter 에서 요청 본문을 읽기 전에, 이메일은 AccountService.login 에서 Mongo 조회 전에 확인한다.
+ * 버킷 상태는 노드마다 메모리에 둔다.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Duration EVICT_INTERVAL = Duration.ofMinutes(1);
+
+    private final RateLimiter byAddress;
+    private final RateLimiter byEmail;
+    private Disposable evictor;
+
+    public LoginRateLimiter(AppProperties appProperties) {
+        this.byAddress = new RateLimiter(appProperties.getLoginAttemptsPerAddress(), appProperties.getLoginAttemptPeriod());
+        this.byEmail = new RateLimiter(appProperties.getLoginAttemptsPerEmail(), appProperties.getLoginAttemptPeriod());
+    }
+
+    @PostConstruct
+    public void start() {
+        evictor = Flux.interval(EVICT_INTERVAL)
+                .onBackpressureDrop()
+                .subscribe(tick -> {
+                    byAddress.evictIdle();
+                    byEmail.evictIdle();
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        evictor.dispose();
+    }
+
+    /**
+     * 허용되면 0, 아니면 다시 시도할 수 있을 때까지 남은 초.
+     */
+    public long tryAddress(String address) {
+        return seconds(byAddress.tryAcquire(address));
+    }
+
+    public long tryEmail(String email) {
+        return seconds(byEmail.tryAcquire(email == null ? "" : email.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    private long seconds(long waitNanos) {
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,98 @@
+package me.dblab.twitterclone.account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.dblab.twitterclone.common.AppProperties;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비밀번호 해시/검증을 전용 스케줄러에서 실행한다. BCrypt 한 번이 수십~수백 ms 의 CPU 를 쓰므로
+ * 이벤트 루프에서 돌리면 같은 루프의 다른 요청이 모두 멈춘다.
+ * 실행 중이거나 기다리는 작업이 passwordHashThreads + passwordHashQueueSize 를 넘으면
+ * 대기열에 넣지 않고 바로 PasswordHasherBusyException 으로 거절한다.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler scheduler;
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Timer encodeQueueTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesQueueTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.scheduler = Schedulers.newParallel("password-hasher", appProperties.getPasswordHashThreads());
+        this.capacity = appProperties.getPasswordHashThreads() + appProperties.getPasswordHashQueueSize();
+
+        this.encodeQueueTimer = queueTimer("encode", meterRegistry);
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesQueueTimer = queueTimer("matches", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("대기열이 가득 차 거절된 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.in.flight", inFlight, AtomicInteger::get)
+                .description("실행 중이거나 대기 중인 작업 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.dispose();
+    }
+
+    public Mono<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword), encodeQueueTimer, encodeTimer);
+    }
+
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesQueueTimer, matchesTimer);
+    }
+
+    private <T> Mono<T> submit(Callable<T> task, Timer queueTimer, Timer hashTimer) {
+        return Mono.defer(() -> {
+            if (inFlight.incrementAndGet() > capacity) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new PasswordHasherBusyException());
+            }
+            long submittedAt = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                        queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                        return hashTimer.recordCallable(task);
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private static Timer queueTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash.queue")
+                .description("스케줄러에서 실행되기까지 기다린 시간")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash.time")
+                .description("해시/검증에 걸린 시간")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package me.dblab.twitterclone.account;
+
+/**
+ * PasswordHasher 의 대기열이 가득 차 작업을 받지 않았을 때.
+ */
+public class PasswordHasherBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHasherBusyException() {
+        super("password hasher is saturated", null, false, false);
+    }
+}
@@ -0,0 +1,39 @@
+package me.dblab.twitterclone.account;
+
+/**
+ * 비밀번호 규칙: MIN_LENGTH 자 이상, 영문 대/소문자, 숫자, 특수문자($@!%*?&)를 각각 하나 이상 포함하고 그 밖의 문자는 쓸 수 없다.
+ * 기존 lookahead 정규식과 같은 규칙을 문자열을 한 번만 훑어서 검사한다.
+ */
+public final class PasswordPolicy {
+
+    public static final int MIN_LENGTH = 8;
+    public static final String SPECIAL_CHARS = "$@!%*?&";
+
+    private PasswordPolicy() {
+    }
+
+    public static boolean isValid(String password) {
+        if (password == null || password.length() < MIN_LENGTH) {
+            return false;
+        }
+        boolean lower = false;
+        boolean upper = false;
+        boolean digit = false;
+        boolean special = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (SPECIAL_CHARS.indexOf(c) >= 0) {
+                special = true;
+            } else {
+                return false;
+            }
+        }
+        return lower && upper && digit && special;
+    }
+}
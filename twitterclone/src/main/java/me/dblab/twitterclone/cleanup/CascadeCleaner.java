@@ -0,0 +1,273 @@
+package me.dblab.twitterclone.cleanup;
+
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.explore.Explore;
+import me.dblab.twitterclone.favorite.Favorite;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.follow.FollowGraph;
+import me.dblab.twitterclone.timeline.Timeline;
+import me.dblab.twitterclone.tweet.LikeCounter;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 트윗/계정과 거기에 딸린 댓글, 좋아요, 팔로우, 검색 기록, 타임라인 항목을 백그라운드에서 지운다.
+ * 삭제 요청은 CleanupJob 을 먼저 저장하므로, 트윗/계정 문서를 지우다 실패해도 작업의 첫 단계가 다시 지운다.
+ * 워커는 cleanupConcurrency 개까지 작업을 잡아 컬렉션별로 deleteMany 를 실행하고, 단계마다 진행 상황을 저장한다.
+ * 노드가 죽으면 lease(cleanupLease)가 끝난 뒤 다른 워커가 저장된 단계부터 이어서 실행한다.
+ * 계정의 트윗, 팔로우, 좋아요, 댓글은 cleanupBatchSize 개씩 읽어 지우고 좋아요 수, 팔로우 수, 댓글 수를 되돌리므로,
+ * 중간에 멈춰도 남은 문서부터 다시 시작한다.
+ */
+@Slf4j
+@Component
+public class CascadeCleaner {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final CleanupJobRepository cleanupJobRepository;
+    private final AccountRepository accountRepository;
+    private final TweetRepository tweetRepository;
+    private final LikeCounter likeCounter;
+    private final FollowGraph followGraph;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final DirectProcessor<Long> enqueued = DirectProcessor.create();
+    private final FluxSink<Long> enqueuedSink = enqueued.sink();
+    private final AtomicInteger running = new AtomicInteger();
+    private final Map<Class<?>, Counter> deleted = new ConcurrentHashMap<>();
+    private final Counter completed;
+    private final Counter failed;
+    private Disposable worker;
+
+    public CascadeCleaner(ReactiveMongoTemplate reactiveMongoTemplate, CleanupJobRepository cleanupJobRepository,
+                          AccountRepository accountRepository, TweetRepository tweetRepository, LikeCounter likeCounter,
+                          FollowGraph followGraph, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.cleanupJobRepository = cleanupJobRepository;
+        this.accountRepository = accountRepository;
+        this.tweetRepository = tweetRepository;
+        this.likeCounter = likeCounter;
+        this.followGraph = followGraph;
+        this.appProperties = appProperties;
+        this.meterRegistry = meterRegistry;
+        this.completed = Counter.builder("cleanup.jobs")
+                .tag("outcome", "completed")
+                .description("끝난 정리 작업 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("cleanup.jobs")
+                .tag("outcome", "failed")
+                .description("실패해서 lease 이후 다시 실행할 정리 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("cleanup.jobs.running", running, AtomicInteger::get)
+                .description("실행 중인 정리 작업 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = Flux.merge(Flux.interval(Duration.ZERO, appProperties.getCleanupPollInterval()), enqueued)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.dispose();
+    }
+
+    public Mono<Void> deleteTweet(String tweetId) {
+        return enqueue(CleanupJob.builder()
+                .type(CleanupType.TWEET)
+                .tweetId(tweetId));
+    }
+
+    public Mono<Void> deleteAccount(Account account) {
+        return enqueue(CleanupJob.builder()
+                .type(CleanupType.ACCOUNT)
+                .accountId(account.getId())
+                .accountEmail(account.getEmail())
+                .accountNo(account.getAccountNo()));
+    }
+
+    /**
+     * 잡을 수 있는 작업이 없을 때까지 실행한다. 끝난 작업 수를 돌려준다.
+     */
+    public Mono<Long> drain() {
+        return Flux.range(0, appProperties.getCleanupConcurrency())
+                .flatMap(slot -> claimAndRun().expand(job -> claimAndRun()))
+                .count()
+                .onErrorResume(e -> {
+                    log.warn("failed to claim cleanup jobs", e);
+                    return Mono.just(0L);
+                });
+    }
+
+    private Mono<Void> enqueue(CleanupJob.CleanupJobBuilder job) {
+        LocalDateTime now = LocalDateTime.now();
+        return cleanupJobRepository.save(job.createdDate(now).lockedUntil(now).build())
+                .doOnSuccess(saved -> enqueuedSink.next(0L))
+                .then();
+    }
+
+    private Mono<CleanupJob> claimAndRun() {
+        return Mono.defer(() -> cleanupJobRepository.claim(LocalDateTime.now(), appProperties.getCleanupLease()))
+                .flatMap(job -> run(job).thenReturn(job));
+    }
+
+    private Mono<Void> run(CleanupJob job) {
+        List<Supplier<Mono<Long>>> steps = steps(job);
+        return Flux.range(job.getStep(), steps.size() - job.getStep())
+                .concatMap(step -> steps.get(step).get()
+                        .flatMap(count -> {
+                            job.setStep(step + 1);
+                            job.setDeleted(job.getDeleted() + count);
+                            job.setLockedUntil(LocalDateTime.now().plus(appProperties.getCleanupLease()));
+                            return cleanupJobRepository.save(job);
+                        }))
+                .then(cleanupJobRepository.delete(job))
+                .doOnSuccess(done -> {
+                    completed.increment();
+                    log.info("cleaned up {} {}: {} documents", job.getType(), target(job), job.getDeleted());
+                })
+                .onErrorResume(e -> {
+                    // lease 가 끝나면 저장된 단계부터 다시 실행된다.
+                    failed.increment();
+                    log.warn("cleanup of {} {} failed at step {}", job.getType(), target(job), job.getStep(), e);
+                    return Mono.empty();
+                })
+                .doOnSubscribe(subscription -> running.incrementAndGet())
+                .doFinally(signal -> running.decrementAndGet());
+    }
+
+    private List<Supplier<Mono<Long>>> steps(CleanupJob job) {
+        if (job.getType() == CleanupType.TWEET) {
+            List<String> tweetIds = Collections.singletonList(job.getTweetId());
+            return Arrays.asList(
+                    () -> remove(Tweet.class, Criteria.where("id").is(job.getTweetId())),
+                    () -> remove(Comment.class, Criteria.where("tweetId").in(tweetIds)),
+                    () -> remove(Favorite.class, Criteria.where("tweetId").in(tweetIds)),
+                    () -> remove(Timeline.class, Criteria.where("tweetId").in(tweetIds)));
+        }
+        String email = job.getAccountEmail();
+        Long accountNo = job.getAccountNo();
+        return Arrays.asList(
+                () -> remove(Account.class, Criteria.where("id").is(job.getAccountId())),
+                () -> removeTweets(email),
+                () -> accountNo == null ? Mono.just(0L) : removeInBatches(Follow.class, Criteria.where("followerNo").is(accountNo),
+                        Follow::getId, this::unfollowed)
+                        .doOnSuccess(count -> followGraph.invalidate(accountNo)),
+                () -> accountNo == null ? Mono.just(0L) : removeInBatches(Follow.class, Criteria.where("followingNo").is(accountNo),
+                        Follow::getId, this::unfollowed),
+                () -> removeInBatches(Favorite.class, Criteria.where("accountEmail").is(email),
+                        Favorite::getId, this::unliked),
+                () -> removeInBatches(Comment.class, Criteria.where("authorEmail").is(email),
+                        Comment::getId, this::uncommented),
+                () -> remove(Explore.class, Criteria.where("accountEmail").is(email)),
+                () -> remove(Timeline.class, Criteria.where("ownerEmail").is(email)));
+    }
+
+    /**
+     * criteria 에 맞는 문서를 cleanupBatchSize 개씩 읽어 지우고, 지운 배치마다 revert 로 카운터를 되돌린다.
+     * 지운 뒤에 되돌리므로 둘 사이에 멈추면 그 배치의 카운터는 되돌리지 못하지만, 두 번 되돌리지는 않는다.
+     */
+    private <T> Mono<Long> removeInBatches(Class<T> type, Criteria criteria, Function<T, String> id, Function<List<T>, Mono<Void>> revert) {
+        Query batch = Query.query(criteria).limit(appProperties.getCleanupBatchSize());
+        Mono<Long> next = Mono.defer(() -> reactiveMongoTemplate.find(batch, type)
+                .collectList()
+                .filter(documents -> !documents.isEmpty())
+                .flatMap(documents -> remove(type, Criteria.where("id").in(documents.stream().map(id).collect(Collectors.toList())))
+                        .flatMap(count -> revert.apply(documents).thenReturn(count))));
+        return next.expand(count -> next)
+                .reduce(0L, Long::sum);
+    }
+
+    // 지운 계정 쪽의 카운터도 함께 내리지만 계정 문서가 이미 없으므로 아무것도 바뀌지 않는다.
+    private Mono<Void> unfollowed(List<Follow> follows) {
+        follows.forEach(follow -> followGraph.unfollow(follow.getFollowerNo(), follow.getFollowingNo()));
+        return Flux.fromIterable(follows.stream().collect(Collectors.groupingBy(Follow::getFollowerNo,
+                        Collectors.mapping(Follow::getFollowingNo, Collectors.toList()))).entrySet())
+                .concatMap(followings -> accountRepository.incrementFollowCounts(followings.getKey(), followings.getValue(), -1))
+                .then();
+    }
+
+    private Mono<Void> unliked(List<Favorite> favorites) {
+        favorites.stream()
+                .collect(Collectors.groupingBy(Favorite::getTweetId, Collectors.counting()))
+                .forEach((tweetId, count) -> likeCounter.increment(tweetId, -count));
+        return Mono.empty();
+    }
+
+    // 첫 댓글에 달린 다른 계정의 답글은 남으므로 countComment 는 지운 댓글 수만큼만 내린다.
+    private Mono<Void> uncommented(List<Comment> comments) {
+        return Flux.fromIterable(comments)
+                .concatMap(comment -> tweetRepository.removeComment(comment, 0))
+                .then();
+    }
+
+    // 한 배치씩 트윗 id 를 읽어 딸린 문서와 트윗을 지우고, 더 읽을 트윗이 없으면 끝난다.
+    private Mono<Long> removeTweets(String authorEmail) {
+        Query batch = Query.query(Criteria.where("authorEmail").is(authorEmail))
+                .limit(appProperties.getCleanupBatchSize());
+        batch.fields().include("id");
+        Mono<Long> next = Mono.defer(() -> reactiveMongoTemplate.find(batch, Tweet.class)
+                .map(Tweet::getId)
+                .collectList()
+                .filter(tweetIds -> !tweetIds.isEmpty())
+                .flatMap(tweetIds -> Flux.concat(
+                                remove(Comment.class, Criteria.where("tweetId").in(tweetIds)),
+                                remove(Favorite.class, Criteria.where("tweetId").in(tweetIds)),
+                                remove(Timeline.class, Criteria.where("tweetId").in(tweetIds)),
+                                remove(Tweet.class, Criteria.where("id").in(tweetIds)))
+                        .reduce(0L, Long::sum)));
+        return next.expand(count -> next)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> remove(Class<?> type, Criteria criteria) {
+        return reactiveMongoTemplate.remove(Query.query(criteria), type)
+                .map(DeleteResult::getDeletedCount)
+                .doOnNext(count -> deletedCounter(type).increment(count));
+    }
+
+    private Counter deletedCounter(Class<?> type) {
+        return deleted.computeIfAbsent(type, key -> Counter.builder("cleanup.deleted")
+                .tag("collection", reactiveMongoTemplate.getCollectionName(key))
+                .description("정리 작업이 지운 문서 수")
+                .register(meterRegistry));
+    }
+
+    private String target(CleanupJob job) {
+        return job.getType() == CleanupType.TWEET ? job.getTweetId() : job.getAccountEmail();
+    }
+}
@@ -0,0 +1,37 @@
+package me.dblab.twitterclone.cleanup;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+/**
+ * 삭제된 트윗/계정에 딸린 문서를 지우는 작업. step 까지 끝난 단계는 다시 하지 않는다.
+ * lockedUntil 이 지나면 다른 워커가 가져가 이어서 실행한다.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Document
+public class CleanupJob {
+
+    @Id
+    private String id;
+
+    private CleanupType type;
+
+    private String tweetId;
+
+    private String accountId;
+
+    private String accountEmail;
+
+    private Long accountNo;
+
+    private int step;
+
+    private long deleted;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,6 @@
+package me.dblab.twitterclone.cleanup;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface CleanupJobRepository extends ReactiveMongoRepository<CleanupJob, String>, CleanupJobRepositoryCustom {
+}
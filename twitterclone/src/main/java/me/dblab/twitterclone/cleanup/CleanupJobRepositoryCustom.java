@@ -0,0 +1,9 @@
+package me.dblab.twitterclone.cleanup;
+
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public interface CleanupJobRepositoryCustom {
+    Mono<CleanupJob> claim(LocalDateTime now, Duration lease);
+}
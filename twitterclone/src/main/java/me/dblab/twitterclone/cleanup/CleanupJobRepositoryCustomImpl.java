@@ -0,0 +1,31 @@
+package me.dblab.twitterclone.cleanup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class CleanupJobRepositoryCustomImpl implements CleanupJobRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * 아무도 잡고 있지 않은 가장 오래된 작업 하나를 lease 동안 잡는다. findAndModify 라 여러 노드가 같은 작업을 가져가지 않는다.
+     */
+    @Override
+    public Mono<CleanupJob> claim(LocalDateTime now, Duration lease) {
+        Query available = Query.query(Criteria.where("lockedUntil").lte(now))
+                .with(Sort.by("createdDate"));
+        return reactiveMongoTemplate.findAndModify(available,
+                Update.update("lockedUntil", now.plus(lease)),
+                FindAndModifyOptions.options().returnNew(true),
+                CleanupJob.class);
+    }
+}
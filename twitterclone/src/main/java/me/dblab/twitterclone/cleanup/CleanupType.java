@@ -0,0 +1,5 @@
+package me.dblab.twitterclone.cleanup;
+
+public enum CleanupType {
+    TWEET, ACCOUNT;
+}
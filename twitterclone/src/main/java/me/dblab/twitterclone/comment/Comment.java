@@ -21,4 +21,15 @@ public class Comment {
     private String authorEmail;
 
     private String tweetId;
+
+    // 답글이면 스레드 첫 댓글의 id. 답글의 답글도 같은 스레드에 붙는다.
+    private String parentCommentId;
+
+    private int countReply;
+
+    public static Comment from(CommentDto commentDto) {
+        Comment comment = new Comment();
+        comment.setContent(commentDto.getContent());
+        return comment;
+    }
 }
@@ -1,12 +1,15 @@
 package me.dblab.twitterclone.comment;
 
+import me.dblab.twitterclone.common.Cursor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.List;
+
+import static me.dblab.twitterclone.common.Constants.DEFAULT_PAGE_SIZE;
 
 @RestController
 @RequestMapping(value = "/api/comments", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -22,8 +25,21 @@ public class CommentController {
     }
 
     @GetMapping("/{tweetId}")
-    public Flux<Comment> getCommentList(@PathVariable String tweetId) {
-        return commentService.getCommentList(tweetId);
+    public Mono<ResponseEntity<List<Comment>>> getCommentList(@PathVariable String tweetId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return Cursor.parse(cursor)
+                .flatMap(decoded -> commentService.getCommentList(tweetId, decoded, Cursor.limit(limit)))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping("/{commentId}/replies")
+    public Mono<ResponseEntity<List<Comment>>> getReplyList(@PathVariable String commentId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return Cursor.parse(cursor)
+                .flatMap(decoded -> commentService.getReplyList(commentId, decoded, Cursor.limit(limit)))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
 
     @PostMapping("/{tweetId}")
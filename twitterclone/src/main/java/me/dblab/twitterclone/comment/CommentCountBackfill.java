@@ -0,0 +1,53 @@
+package me.dblab.twitterclone.comment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * countComment 가 없는 기존 트윗의 댓글 수(답글 포함)와 recentComments 를 Comment 에서 채운다. 기동을 막지 않도록 백그라운드에서 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentCountBackfill implements ApplicationRunner {
+
+    private static final int CONCURRENCY = 16;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final CommentRepository commentRepository;
+    private final AppProperties appProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill().subscribe(null, e -> log.warn("comment count backfill failed", e));
+    }
+
+    Mono<Long> backfill() {
+        Query missing = Query.query(Criteria.where("countComment").exists(false));
+        missing.fields().include("id");
+        return reactiveMongoTemplate.find(missing, Tweet.class)
+                .flatMap(tweet -> Mono.zip(commentRepository.countByTweetId(tweet.getId()),
+                        commentRepository.findAllByTweetId(tweet.getId(), Cursor.FIRST, appProperties.getRecentCommentSize()).collectList())
+                        .flatMap(comments -> reactiveMongoTemplate.updateFirst(
+                                Query.query(Criteria.where("id").is(tweet.getId())),
+                                Update.update("countComment", comments.getT1()).set("recentComments", comments.getT2()),
+                                Tweet.class)), CONCURRENCY)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("filled comment counts for {} tweets", count);
+                    }
+                });
+    }
+}
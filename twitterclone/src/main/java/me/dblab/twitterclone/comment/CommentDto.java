@@ -7,4 +7,6 @@ import lombok.*;
 public class CommentDto {
 
     private String content;
+
+    private String parentCommentId;
 }
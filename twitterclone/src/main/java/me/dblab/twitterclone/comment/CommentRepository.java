@@ -2,7 +2,9 @@ package me.dblab.twitterclone.comment;
 
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface CommentRepository extends ReactiveMongoRepository<Comment, String> {
+public interface CommentRepository extends ReactiveMongoRepository<Comment, String>, CommentRepositoryCustom {
     Flux<Comment> findAllByTweetId(String tweetId);
+    Mono<Long> countByTweetId(String tweetId);
 }
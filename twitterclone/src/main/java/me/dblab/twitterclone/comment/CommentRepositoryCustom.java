@@ -0,0 +1,13 @@
+package me.dblab.twitterclone.comment;
+
+import me.dblab.twitterclone.common.Cursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CommentRepositoryCustom {
+    Flux<Comment> findAllByTweetId(String tweetId, Cursor cursor, int limit);
+    Flux<Comment> findAllByParentCommentId(String parentCommentId, Cursor cursor, int limit);
+    Mono<Comment> updateContent(String commentId, String content);
+    Mono<Void> incrementReplies(String commentId, int delta);
+    Mono<Long> deleteAllByParentCommentId(String parentCommentId);
+}
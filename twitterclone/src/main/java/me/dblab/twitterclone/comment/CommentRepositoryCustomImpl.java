@@ -0,0 +1,50 @@
+package me.dblab.twitterclone.comment;
+
+import com.mongodb.client.result.DeleteResult;
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.Cursor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    // 답글은 스레드로 따로 읽으므로 트윗의 댓글 목록에는 첫 댓글만 보여준다.
+    @Override
+    public Flux<Comment> findAllByTweetId(String tweetId, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("tweetId").is(tweetId).and("parentCommentId").is(null), "createdAt", "id", limit), Comment.class);
+    }
+
+    @Override
+    public Flux<Comment> findAllByParentCommentId(String parentCommentId, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("parentCommentId").is(parentCommentId), "createdAt", "id", limit), Comment.class);
+    }
+
+    // 답글 수(countReply)를 덮어쓰지 않도록 내용만 바꾼다.
+    @Override
+    public Mono<Comment> updateContent(String commentId, String content) {
+        return reactiveMongoTemplate.findAndModify(Query.query(Criteria.where("id").is(commentId)),
+                new Update().set("content", content),
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class);
+    }
+
+    @Override
+    public Mono<Void> incrementReplies(String commentId, int delta) {
+        return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("id").is(commentId)), new Update().inc("countReply", delta), Comment.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Long> deleteAllByParentCommentId(String parentCommentId) {
+        return reactiveMongoTemplate.remove(Query.query(Criteria.where("parentCommentId").is(parentCommentId)), Comment.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+}
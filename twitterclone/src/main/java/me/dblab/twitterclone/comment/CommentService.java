@@ -1,60 +1,109 @@
 package me.dblab.twitterclone.comment;
 
 import me.dblab.twitterclone.account.AccountService;
-import me.dblab.twitterclone.tweet.TweetService;
-import org.modelmapper.ModelMapper;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.bson.types.ObjectId;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+/**
+ * 댓글을 저장하면서 트윗의 countComment 와 recentComments 도 같이 갱신한다.
+ * 트윗을 보여줄 때 댓글 수와 최신 댓글은 트윗 문서 하나로 읽고, 전체 목록과 답글 스레드만 Comment 를 range scan 한다.
+ */
 @Service
 public class CommentService {
 
     private final CommentRepository commentRepository;
 
+    private final TweetRepository tweetRepository;
+
     private final AccountService accountService;
 
-    private final ModelMapper modelMapper;
+    private final AppProperties appProperties;
+
 
-    public CommentService(CommentRepository commentRepository, AccountService accountService, ModelMapper modelMapper) {
+    public CommentService(CommentRepository commentRepository, TweetRepository tweetRepository,
+                          AccountService accountService, AppProperties appProperties) {
         this.commentRepository = commentRepository;
+        this.tweetRepository = tweetRepository;
         this.accountService = accountService;
-        this.modelMapper = modelMapper;
+        this.appProperties = appProperties;
     }
 
     public Mono<ResponseEntity<Comment>> saveComment(String tweetId, CommentDto commentDto) {
         return accountService.findCurrentUser()
                 .map(cu -> {
-                    Comment comment = modelMapper.map(commentDto, Comment.class);
+                    Comment comment = Comment.from(commentDto);
+                    // recentComments 에 넣는 사본과 같은 id 를 쓰도록 미리 발급한다.
+                    comment.setId(new ObjectId().toHexString());
                     comment.setCreatedAt(LocalDateTime.now());
                     comment.setAuthorEmail(cu.getEmail());
                     comment.setTweetId(tweetId);
                     return comment;
-                }).flatMap(commentRepository::save)
+                })
+                .flatMap(comment -> withThread(comment, commentDto.getParentCommentId()))
+                .filterWhen(comment -> tweetRepository.addComment(comment, appProperties.getRecentCommentSize()))
+                .flatMap(comment -> comment.getParentCommentId() == null
+                        ? commentRepository.insert(comment)
+                        : commentRepository.incrementReplies(comment.getParentCommentId(), 1).then(commentRepository.insert(comment)))
                 .map(savedComment -> new ResponseEntity<>(savedComment, HttpStatus.CREATED))
                 .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
 
     public Mono<ResponseEntity> updateComment(String commentId, CommentDto validateComment) {
-        return commentRepository.findById(commentId)
-                .map(comment -> {
-                    comment.setContent(validateComment.getContent());
-                    return comment;
-                }).flatMap(commentRepository::save)
+        return commentRepository.updateContent(commentId, validateComment.getContent())
+                .flatMap(comment -> comment.getParentCommentId() == null
+                        ? tweetRepository.updateComment(comment).thenReturn(comment)
+                        : Mono.just(comment))
                 .map(comment -> new ResponseEntity<>(comment, HttpStatus.OK));
     }
 
     public Mono<ResponseEntity<Void>> deleteComment(String commentId) {
         return commentRepository.findById(commentId)
-                .flatMap(comment -> commentRepository.delete(comment).then(Mono.just(new ResponseEntity<Void>(HttpStatus.OK))))
+                .flatMap(comment -> commentRepository.delete(comment).then(comment.getParentCommentId() == null
+                        ? deleteThread(comment)
+                        : commentRepository.incrementReplies(comment.getParentCommentId(), -1).then(tweetRepository.removeComment(comment, 0)))
+                        .then(Mono.just(new ResponseEntity<Void>(HttpStatus.OK))))
                 .switchIfEmpty(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
     }
 
-    Flux<Comment> getCommentList(String tweetId) {
-        return commentRepository.findAllByTweetId(tweetId);
+    Mono<ResponseEntity<List<Comment>>> getCommentList(String tweetId, Cursor cursor, int limit) {
+        return commentRepository.findAllByTweetId(tweetId, cursor, limit)
+                .collectList()
+                .map(comments -> Cursor.page(comments, limit, comment -> Cursor.of(comment.getCreatedAt(), comment.getId())));
+    }
+
+    Mono<ResponseEntity<List<Comment>>> getReplyList(String commentId, Cursor cursor, int limit) {
+        return commentRepository.findAllByParentCommentId(commentId, cursor, limit)
+                .collectList()
+                .map(comments -> Cursor.page(comments, limit, comment -> Cursor.of(comment.getCreatedAt(), comment.getId())));
+    }
+
+    // 답글은 스레드 첫 댓글에 붙인다. 부모가 없거나 다른 트윗의 댓글이면 empty.
+    private Mono<Comment> withThread(Comment comment, String parentCommentId) {
+        if (parentCommentId == null) {
+            return Mono.just(comment);
+        }
+        return commentRepository.findById(parentCommentId)
+                .filter(parent -> parent.getTweetId().equals(comment.getTweetId()))
+                .map(parent -> {
+                    comment.setParentCommentId(parent.getParentCommentId() == null ? parent.getId() : parent.getParentCommentId());
+                    return comment;
+                });
+    }
+
+    // 첫 댓글을 지우면 답글도 지우고, recentComments 의 빈 자리를 다음 댓글로 채운다.
+    private Mono<Void> deleteThread(Comment comment) {
+        return commentRepository.deleteAllByParentCommentId(comment.getId())
+                .flatMap(removedReplies -> tweetRepository.removeComment(comment, removedReplies))
+                .then(commentRepository.findAllByTweetId(comment.getTweetId(), Cursor.FIRST, appProperties.getRecentCommentSize()).collectList())
+                .flatMap(recentComments -> tweetRepository.setRecentComments(comment.getTweetId(), recentComments));
     }
 }
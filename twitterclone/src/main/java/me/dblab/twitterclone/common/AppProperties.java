@@ -2,8 +2,10 @@ package me.dblab.twitterclone.common;
 
 import lombok.Getter;
 import lombok.Setter;
+import me.dblab.twitterclone.timeline.TimelineMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
 
 @Component
 @ConfigurationProperties(prefix = "app-properties")
@@ -15,7 +17,30 @@ public class AppProperties {
     private String testEmail;
     private String testNickname;
     private String regexEmail;
-    private String regexPassword;
-    private String regexSpecialChar;
+    private TimelineMode timelineMode = TimelineMode.HYBRID;
+    private long celebrityFollowerThreshold = 10000;
+    private int timelineInQueryChunkSize = 1000;
+    private Duration likeFlushInterval = Duration.ofSeconds(1);
+    private long likeFlushThreshold = 1000;
+    private long accountCacheSize = 10000;
+    private Duration accountCacheTtl = Duration.ofMinutes(5);
+    private long tokenCacheSize = 10000;
+    private Duration trendingHalfLife = Duration.ofHours(1);
+    private int trendingMaxTags = 10000;
+    private int passwordHashThreads = Runtime.getRuntime().availableProcessors();
+    private int passwordHashQueueSize = 64;
+    private int loginAttemptsPerAddress = 20;
+    private int loginAttemptsPerEmail = 5;
+    private Duration loginAttemptPeriod = Duration.ofMinutes(1);
+    private int bulkBatchSize = 500;
+    private int liveBufferSize = 256;
+    private long followGraphCacheSize = 1000000;
+    private Duration followGraphCacheTtl = Duration.ofMinutes(10);
+    private long accountDirectorySize = 100000;
+    private int cleanupConcurrency = 4;
+    private int cleanupBatchSize = 500;
+    private Duration cleanupPollInterval = Duration.ofSeconds(30);
+    private Duration cleanupLease = Duration.ofMinutes(5);
+    private int recentCommentSize = 3;
 
 }
@@ -0,0 +1,61 @@
+package me.dblab.twitterclone.common;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 요청 하나 동안 쓰는 DataLoader 방식의 일괄 조회기.
+ * loadMany 로 받은 키 중 아직 조회하지 않은 키만 모아 batchFunction 을 한 번 호출하고, 결과는 요청이 끝날 때까지 기억한다.
+ * 같은 키를 여러 번 요청해도 한 번만 읽고, 결과가 없던 키도 다시 읽지 않는다.
+ * 요청마다 새로 만들어 쓰고, loadMany 는 한 번에 하나씩(concatMap) 호출한다.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Flux<V>> batchFunction;
+    private final Function<V, K> keyOf;
+    private final Map<K, V> loaded = new ConcurrentHashMap<>();
+    private final Set<K> requested = ConcurrentHashMap.newKeySet();
+
+    public BatchLoader(Function<Set<K>, Flux<V>> batchFunction, Function<V, K> keyOf) {
+        this.batchFunction = batchFunction;
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * keys 중 찾은 키만 담은 map.
+     */
+    public Mono<Map<K, V>> loadMany(Collection<K> keys) {
+        return Mono.defer(() -> {
+            Set<K> missing = new LinkedHashSet<>();
+            for (K key : keys) {
+                if (key != null && !requested.contains(key)) {
+                    missing.add(key);
+                }
+            }
+            Mono<Void> fetch = missing.isEmpty()
+                    ? Mono.empty()
+                    : batchFunction.apply(missing)
+                            .doOnNext(value -> loaded.put(keyOf.apply(value), value))
+                            .then(Mono.fromRunnable(() -> requested.addAll(missing)));
+            return fetch.then(Mono.fromCallable(() -> found(keys)));
+        });
+    }
+
+    private Map<K, V> found(Collection<K> keys) {
+        Map<K, V> found = new HashMap<>();
+        for (K key : keys) {
+            V value = key == null ? null : loaded.get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,29 @@
+package me.dblab.twitterclone.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 일괄 처리 요청의 항목별 결과. index 는 요청 스트림에서의 순번(0부터)이다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+
+    private final long index;
+    private final int status;
+    private final String id;
+    private final String error;
+
+    public static BatchResult created(long index, String id) {
+        return new BatchResult(index, HttpStatus.CREATED.value(), id, null);
+    }
+
+    public static BatchResult badRequest(long index, String error) {
+        return new BatchResult(index, HttpStatus.BAD_REQUEST.value(), null, error);
+    }
+}
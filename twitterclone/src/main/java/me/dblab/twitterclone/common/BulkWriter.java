@@ -0,0 +1,61 @@
+package me.dblab.twitterclone.common;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티 목록을 insertMany 한 번으로 저장한다. unordered 로 보내므로 unique 인덱스 위반 같은 항목별 실패가
+ * 나머지 항목을 막지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkWriter {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * 저장된 순서대로 각 엔티티의 id. 저장하지 못한 엔티티 자리는 null 이다.
+     */
+    public <T> Mono<List<String>> insert(Class<T> type, List<T> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        List<Document> documents = entities.stream()
+                .map(this::toDocument)
+                .collect(Collectors.toList());
+        return Mono.from(reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(type))
+                        .insertMany(documents, new InsertManyOptions().ordered(false)))
+                .map(success -> ids(documents, Collections.emptySet()))
+                .onErrorResume(MongoBulkWriteException.class, e -> Mono.just(ids(documents, e.getWriteErrors().stream()
+                        .map(BulkWriteError::getIndex)
+                        .collect(Collectors.toSet()))));
+    }
+
+    private Document toDocument(Object entity) {
+        Document document = new Document();
+        reactiveMongoTemplate.getConverter().write(entity, document);
+        return document;
+    }
+
+    // insertMany 는 _id 가 없는 문서에 ObjectId 를 채워 넣는다.
+    private List<String> ids(List<Document> documents, Set<Integer> failed) {
+        List<String> ids = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            Object id = documents.get(i).get("_id");
+            ids.add(failed.contains(i) || id == null ? null : id instanceof ObjectId ? ((ObjectId) id).toHexString() : id.toString());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,43 @@
+package me.dblab.twitterclone.common;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 설정값으로 받은 정규식을 한 번만 컴파일해 재사용한다.
+ * 매번 원본 문자열을 확인해서, 설정이 바뀌면(AppProperties 재바인딩 등) 다음 호출에서 다시 컴파일한다.
+ */
+public final class CachedPattern {
+
+    private final Supplier<String> regex;
+    private volatile Compiled compiled;
+
+    public CachedPattern(Supplier<String> regex) {
+        this.regex = regex;
+    }
+
+    public boolean matches(CharSequence input) {
+        return get().matcher(input).matches();
+    }
+
+    public Pattern get() {
+        String current = regex.get();
+        Compiled cached = compiled;
+        if (cached == null || !cached.regex.equals(current)) {
+            cached = new Compiled(current, Pattern.compile(current));
+            compiled = cached;
+        }
+        return cached.pattern;
+    }
+
+    private static final class Compiled {
+
+        private final String regex;
+        private final Pattern pattern;
+
+        private Compiled(String regex, Pattern pattern) {
+            this.regex = regex;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -6,4 +6,9 @@ public class Constants {
     public static final String SIGNING_KEY = "mkshin96shinmugonyangkiseokyks095mkshin96shinmugonyangkiseokyks095mkshin96shinmugonyangkiseokyks095mkshin96shinmugonyangkiseokyks095";
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String AUTHORITIES_KEY = "role";
+    public static final String DEFAULT_PAGE_SIZE = "20";
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final String DEFAULT_TREND_SIZE = "10";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
 }
@@ -0,0 +1,112 @@
+package me.dblab.twitterclone.common;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static me.dblab.twitterclone.common.Constants.MAX_PAGE_SIZE;
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
+
+/**
+ * (createdDate, id) 기반 keyset 페이지네이션 커서.
+ * 클라이언트에는 base64 로 인코딩된 불투명한 문자열로 노출된다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+
+    public static final Cursor FIRST = new Cursor(null, null);
+
+    private static final String DELIMITER = ",";
+
+    private final LocalDateTime createdDate;
+    private final String id;
+
+    public static Cursor of(LocalDateTime createdDate, String id) {
+        return new Cursor(createdDate, id);
+    }
+
+    public static Mono<Cursor> parse(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return Mono.just(FIRST);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int delimiter = decoded.lastIndexOf(DELIMITER);
+            String createdDate = decoded.substring(0, delimiter);
+            String id = decoded.substring(delimiter + 1);
+            if (id.isEmpty()) {
+                return Mono.empty();
+            }
+            return Mono.just(new Cursor(createdDate.isEmpty() ? null : LocalDateTime.parse(createdDate), id));
+        } catch (RuntimeException e) {
+            return Mono.empty();
+        }
+    }
+
+    public static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    public static Sort sort(String dateField, String idField) {
+        return Sort.by(Sort.Direction.DESC, dateField, idField);
+    }
+
+    public static <T> ResponseEntity<List<T>> page(List<T> content, Cursor next) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (next != null) {
+            builder.header(NEXT_CURSOR_HEADER, next.encode());
+        }
+        return builder.body(content);
+    }
+
+    public static <T> ResponseEntity<List<T>> page(List<T> content, int limit, Function<T, Cursor> cursorOf) {
+        return page(content, next(content, limit, cursorOf));
+    }
+
+    public static <T> Cursor next(List<T> content, int limit, Function<T, Cursor> cursorOf) {
+        if (content.isEmpty() || content.size() < limit) {
+            return null;
+        }
+        return cursorOf.apply(content.get(content.size() - 1));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String encode() {
+        String raw = (createdDate == null ? "" : createdDate.toString()) + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Criteria criteria(String dateField, String idField) {
+        if (isFirst()) {
+            return new Criteria();
+        }
+        if (createdDate == null) {
+            return Criteria.where(dateField).is(null).and(idField).lt(id);
+        }
+        // createdDate 가 없는 과거 문서는 내림차순 정렬에서 가장 뒤에 온다.
+        return new Criteria().orOperator(
+                Criteria.where(dateField).lt(createdDate),
+                Criteria.where(dateField).is(createdDate).and(idField).lt(id),
+                Criteria.where(dateField).is(null));
+    }
+
+    public Query query(Criteria filter, String dateField, String idField, int limit) {
+        return new Query(new Criteria().andOperator(filter, criteria(dateField, idField)))
+                .with(sort(dateField, idField))
+                .limit(limit);
+    }
+}
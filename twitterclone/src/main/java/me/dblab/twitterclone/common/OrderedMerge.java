@@ -0,0 +1,280 @@
+package me.dblab.twitterclone.common;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 각각 정렬된 여러 Publisher 를 comparator 순서대로 병합하는 k-way merge 연산자.
+ * 모든 소스의 head 가 준비된 경우에만 heap 에서 가장 앞선 원소를 내보내고, 소스별로 prefetch 만큼만 요청한다.
+ * limit 개를 내보내면 더 볼 필요가 없으므로 모든 소스를 cancel 하고 완료한다.
+ */
+public final class OrderedMerge<T> extends Flux<T> {
+
+    private static final int DEFAULT_PREFETCH = 32;
+
+    private final Comparator<? super T> comparator;
+    private final List<? extends Publisher<? extends T>> sources;
+    private final long limit;
+    private final int prefetch;
+
+    private OrderedMerge(Comparator<? super T> comparator, List<? extends Publisher<? extends T>> sources, long limit, int prefetch) {
+        this.comparator = comparator;
+        this.sources = sources;
+        this.limit = limit;
+        this.prefetch = prefetch;
+    }
+
+    public static <T> Flux<T> merge(Comparator<? super T> comparator, long limit, List<? extends Publisher<? extends T>> sources) {
+        if (limit <= 0 || sources.isEmpty()) {
+            return Flux.empty();
+        }
+        int prefetch = (int) Math.min(limit, DEFAULT_PREFETCH);
+        return new OrderedMerge<>(comparator, new ArrayList<>(sources), limit, prefetch);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Coordinator<T> coordinator = new Coordinator<>(actual, comparator, sources.size(), limit, prefetch);
+        actual.onSubscribe(coordinator);
+        coordinator.subscribe(sources);
+    }
+
+    static final class Coordinator<T> implements Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final List<Inner<T>> inners;
+        private final long limit;
+
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+
+        private final PriorityQueue<Inner<T>> heap;
+
+        private volatile boolean cancelled;
+        private boolean failed;
+        private long emitted;
+        private int initialized;
+        private Inner<T> pending;
+
+        Coordinator(CoreSubscriber<? super T> actual, Comparator<? super T> comparator, int size, long limit, int prefetch) {
+            this.actual = actual;
+            this.limit = limit;
+            this.inners = new ArrayList<>(size);
+            this.heap = new PriorityQueue<>(Math.max(1, size), (left, right) -> comparator.compare(left.head, right.head));
+            for (int i = 0; i < size; i++) {
+                inners.add(new Inner<>(this, prefetch));
+            }
+        }
+
+        void subscribe(List<? extends Publisher<? extends T>> sources) {
+            for (int i = 0; i < sources.size() && !cancelled; i++) {
+                sources.get(i).subscribe(inners.get(i));
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(current -> Operators.addCap(current, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+                if (wip.getAndIncrement() == 0) {
+                    clearAll();
+                }
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = emitted;
+
+                for (;;) {
+                    if (cancelled) {
+                        clearAll();
+                        return;
+                    }
+                    if (e == limit) {
+                        cancelAll();
+                        clearAll();
+                        actual.onComplete();
+                        return;
+                    }
+
+                    // 모든 소스의 첫 원소가 준비될 때까지 기다린다. 이미 확인한 소스는 다시 보지 않는다.
+                    while (initialized < inners.size()) {
+                        if (!offer(inners.get(initialized))) {
+                            break;
+                        }
+                        initialized++;
+                    }
+                    if (initialized < inners.size()) {
+                        break;
+                    }
+                    // 직전에 원소를 꺼낸 소스의 다음 원소가 준비되어야 순서를 확정할 수 있다.
+                    if (pending != null) {
+                        if (!offer(pending)) {
+                            break;
+                        }
+                        pending = null;
+                    }
+                    if (failed) {
+                        return;
+                    }
+
+                    Inner<T> min = heap.peek();
+                    if (min == null) {
+                        clearAll();
+                        actual.onComplete();
+                        return;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+
+                    heap.poll();
+                    actual.onNext(min.take());
+                    pending = min;
+                    e++;
+                }
+
+                emitted = e;
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * head 가 준비된 소스는 heap 에 넣고, 비어 있는 채로 끝난 소스는 버린다.
+         * 아직 head 를 기다려야 하면 false.
+         */
+        private boolean offer(Inner<T> inner) {
+            boolean done = inner.done;
+            T head = inner.head();
+            if (head != null) {
+                heap.offer(inner);
+                return true;
+            }
+            if (!done) {
+                return false;
+            }
+            if (inner.error != null && !failed) {
+                failed = true;
+                cancelled = true;
+                cancelAll();
+                clearAll();
+                actual.onError(inner.error);
+            }
+            return true;
+        }
+
+        private void cancelAll() {
+            for (Inner<T> inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        private void clearAll() {
+            heap.clear();
+            pending = null;
+            for (Inner<T> inner : inners) {
+                inner.clear();
+            }
+        }
+    }
+
+    static final class Inner<T> extends BaseSubscriber<T> {
+
+        private final Coordinator<T> parent;
+        private final Queue<T> queue;
+        private final int prefetch;
+        private final int replenish;
+
+        volatile boolean done;
+        Throwable error;
+
+        private T head;
+        private int consumed;
+
+        Inner(Coordinator<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.replenish = prefetch - (prefetch >> 2);
+            this.queue = Queues.<T>get(prefetch).get();
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(prefetch);
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            if (!queue.offer(value)) {
+                onError(Operators.onOperatorError(upstream(), new IllegalStateException("source emitted more than requested"), value, currentContext()));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            parent.drain();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        T head() {
+            if (head == null) {
+                head = queue.poll();
+            }
+            return head;
+        }
+
+        T take() {
+            T value = head;
+            head = null;
+            if (++consumed == replenish) {
+                consumed = 0;
+                request(replenish);
+            }
+            return value;
+        }
+
+        void clear() {
+            head = null;
+            queue.clear();
+        }
+    }
+}
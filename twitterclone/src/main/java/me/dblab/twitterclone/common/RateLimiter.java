@@ -0,0 +1,75 @@
+package me.dblab.twitterclone.common;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 키별 토큰 버킷. 버킷 상태를 "다음 토큰이 다 찰 시각"(GCRA 의 theoretical arrival time) 하나로 표현해
+ * AtomicLong 의 CAS 한 번으로 검사와 차감을 끝낸다. 키 맵은 ConcurrentHashMap 이라 키끼리는 서로 막지 않는다.
+ * 버킷이 가득 찬 키는 상태가 없는 것과 같으므로 evictIdle 로 지워도 동작이 바뀌지 않는다.
+ * 지울 때는 버킷을 EVICTED 로 CAS 해 두므로, 지워지는 버킷을 이미 쥐고 있던 tryAcquire 는 새 버킷에서 다시 시도한다.
+ */
+public final class RateLimiter {
+
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final long interval;
+    private final long tolerance;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * period 동안 permits 번까지, 한 번에 최대 permits 번 연속 허용한다.
+     */
+    public RateLimiter(int permits, Duration period) {
+        this(permits, period, System::nanoTime);
+    }
+
+    RateLimiter(int permits, Duration period, LongSupplier clock) {
+        this.interval = period.toNanos() / permits;
+        this.tolerance = interval * (permits - 1);
+        this.clock = clock;
+    }
+
+    /**
+     * 허용되면 0, 아니면 다음 시도가 허용되기까지 남은 시간(ns).
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        for (;;) {
+            long arrival = bucket.get();
+            if (arrival == EVICTED) {
+                buckets.remove(key, bucket);
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+                continue;
+            }
+            // nanoTime 은 넘칠 수 있으므로 크기 비교 대신 차이로 비교한다.
+            long start = arrival - now > 0 ? arrival : now;
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 버킷이 다시 가득 찬 키를 지운다.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.keySet().forEach(key -> buckets.computeIfPresent(key, (k, bucket) -> {
+            long arrival = bucket.get();
+            return arrival - now <= 0 && bucket.compareAndSet(arrival, EVICTED) ? null : bucket;
+        }));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
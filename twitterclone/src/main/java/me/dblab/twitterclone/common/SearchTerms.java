@@ -0,0 +1,85 @@
+package me.dblab.twitterclone.common;
+
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 검색용 토큰 생성기. 문자/숫자가 아닌 문자로 단어를 나누고 소문자로 바꾼 뒤,
+ * 각 단어의 앞부분(edge n-gram)을 함께 저장해 text 인덱스로 접두어 검색이 가능하도록 한다.
+ */
+public final class SearchTerms {
+
+    public static final String FIELD = "searchTerms";
+    // 형태소 분석/불용어 제거 없이 토큰을 그대로 색인한다.
+    public static final String LANGUAGE = "none";
+
+    private static final int MIN_PREFIX = 2;
+    private static final int MAX_PREFIX = 20;
+
+    private SearchTerms() {
+    }
+
+    /**
+     * 문서에 저장할 검색어 목록. 단어마다 길이 MIN_PREFIX 부터 MAX_PREFIX 까지의 접두어를 만든다.
+     */
+    public static List<String> of(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String token : tokenize(text)) {
+                if (token.length() < MIN_PREFIX) {
+                    terms.add(token);
+                    continue;
+                }
+                for (int end = MIN_PREFIX; end <= Math.min(token.length(), MAX_PREFIX); end++) {
+                    terms.add(token.substring(0, end));
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * 검색어를 같은 규칙으로 나눈다. 저장된 접두어와 비교되므로 MAX_PREFIX 보다 긴 단어는 잘라낸다.
+     */
+    public static List<String> query(String keyword) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokenize(keyword)) {
+            terms.add(token.length() > MAX_PREFIX ? token.substring(0, MAX_PREFIX) : token);
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * searchTerms text 인덱스에 대한 검색 쿼리. 하나라도 일치하는 문서를 textScore 순으로 정렬한다.
+     */
+    public static Query textQuery(List<String> terms, int page, int limit) {
+        return TextQuery.queryText(TextCriteria.forLanguage(LANGUAGE).matchingAny(terms.toArray(new String[0])))
+                .sortByScore()
+                .skip((long) page * limit)
+                .limit(limit);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
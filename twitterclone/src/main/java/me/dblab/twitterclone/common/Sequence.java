@@ -0,0 +1,34 @@
+package me.dblab.twitterclone.common;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * sequences 컬렉션의 문서 하나를 $inc 해서 이름별로 1 부터 증가하는 번호를 발급한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class Sequence {
+
+    private static final String COLLECTION = "sequences";
+    private static final String VALUE = "value";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public Mono<Long> next(String name) {
+        return reactiveMongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(name)),
+                new Update().inc(VALUE, 1L),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                COLLECTION)
+                .map(document -> document.getLong(VALUE));
+    }
+}
@@ -0,0 +1,108 @@
+package me.dblab.twitterclone.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDirectory;
+import me.dblab.twitterclone.common.Sequence;
+import me.dblab.twitterclone.follow.Follow;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * email 로 계정을 가리키던 기존 데이터를 accountNo 로 옮긴다.
+ * accountNo 가 없는 계정에 번호를 발급하고, Follow 의 followerEmail/followingEmail 을 followerNo/followingNo 로 바꾼다.
+ * 계정이 사라진 Follow 는 지운다. 새 인덱스와 쿼리가 번호를 쓰므로 IndexProvisioner 보다 먼저, 기동을 막고 실행한다.
+ * 이미 옮긴 문서는 건너뛰므로 여러 번 실행해도 된다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class AccountNoMigration implements ApplicationRunner {
+
+    private static final int CONCURRENCY = 16;
+    private static final List<String> LEGACY_FOLLOW_FIELDS = Arrays.asList("followerEmail", "followingEmail");
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final AccountDirectory accountDirectory;
+    private final Sequence sequence;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate().block();
+    }
+
+    public Mono<Void> migrate() {
+        return dropLegacyFollowIndexes()
+                .then(assignAccountNos())
+                .then(migrateFollows());
+    }
+
+    // email 기준 unique 인덱스가 남아 있으면 email 없이 저장되는 새 Follow 끼리 중복으로 걸린다.
+    private Mono<Void> dropLegacyFollowIndexes() {
+        return reactiveMongoTemplate.indexOps(Follow.class).getIndexInfo()
+                .filter(this::isLegacyFollowIndex)
+                .concatMap(index -> reactiveMongoTemplate.indexOps(Follow.class).dropIndex(index.getName())
+                        .doOnSuccess(dropped -> log.info("dropped legacy index {} on Follow", index.getName())))
+                .then();
+    }
+
+    private boolean isLegacyFollowIndex(IndexInfo index) {
+        return index.getIndexFields().stream().anyMatch(field -> LEGACY_FOLLOW_FIELDS.contains(field.getKey()));
+    }
+
+    private Mono<Void> assignAccountNos() {
+        Query missing = Query.query(Criteria.where("accountNo").exists(false));
+        missing.fields().include("id");
+        return reactiveMongoTemplate.find(missing, Account.class)
+                .flatMap(account -> sequence.next(Account.SEQUENCE)
+                        .flatMap(accountNo -> reactiveMongoTemplate.updateFirst(
+                                Query.query(Criteria.where("id").is(account.getId()).and("accountNo").exists(false)),
+                                Update.update("accountNo", accountNo),
+                                Account.class)), CONCURRENCY)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("assigned accountNo to {} accounts", count);
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> migrateFollows() {
+        String collection = reactiveMongoTemplate.getCollectionName(Follow.class);
+        Query legacy = Query.query(Criteria.where("followerEmail").exists(true));
+        return reactiveMongoTemplate.find(legacy, Document.class, collection)
+                .flatMap(follow -> {
+                    Query byId = Query.query(Criteria.where("_id").is(follow.get("_id")));
+                    return Mono.zip(accountDirectory.numberOf(follow.getString("followerEmail")), accountDirectory.numberOf(follow.getString("followingEmail")))
+                            .flatMap(numbers -> reactiveMongoTemplate.updateFirst(byId,
+                                    Update.update("followerNo", numbers.getT1())
+                                            .set("followingNo", numbers.getT2())
+                                            .unset("followerEmail")
+                                            .unset("followingEmail"),
+                                    collection).thenReturn(true))
+                            .switchIfEmpty(Mono.defer(() -> reactiveMongoTemplate.remove(byId, collection).thenReturn(false)));
+                }, CONCURRENCY)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("moved {} follows to accountNo", count);
+                    }
+                })
+                .then();
+    }
+}
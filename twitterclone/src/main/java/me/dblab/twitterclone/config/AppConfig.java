@@ -1,15 +1,38 @@
 package me.dblab.twitterclone.config;
 
-import org.modelmapper.ModelMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+import java.util.Arrays;
+
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
 
 @Configuration
 public class AppConfig {
 
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    /**
+     * 일괄 처리 API 가 주고받는 NDJSON(application/x-ndjson) 을 Jackson 코덱이 처리하도록 등록한다.
+     * 응답은 application/stream+json 과 같이 원소마다 한 줄씩 쓰고 바로 flush 한다.
+     * 기본 Jackson 코덱을 등록하는 CodecCustomizer 보다 뒤에 실행되어야 하고, WebClient/WebTestClient 에도 적용된다.
+     */
     @Bean
-    public ModelMapper modelMapper()    {
-        return new ModelMapper();
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer ndjsonCodecCustomizer(ObjectMapper objectMapper) {
+        MimeType[] mimeTypes = {MediaType.APPLICATION_JSON, new MimeType("application", "*+json"), APPLICATION_NDJSON};
+        return configurer -> {
+            Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper, mimeTypes);
+            encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+            configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+            configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper, mimeTypes));
+        };
     }
-
 }
@@ -0,0 +1,235 @@
+package me.dblab.twitterclone.config;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.cleanup.CleanupJob;
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.common.SearchTerms;
+import me.dblab.twitterclone.explore.Explore;
+import me.dblab.twitterclone.favorite.Favorite;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.timeline.Timeline;
+import me.dblab.twitterclone.tweet.LikeCounter;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * 애플리케이션 시작 시 각 쿼리 메소드가 사용하는 인덱스를 생성한다.
+ * 인덱스 정의는 @Document 클래스 대신 이곳에서만 관리한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexProvisioner implements ApplicationRunner {
+
+    static final List<Definition> DEFINITIONS = Arrays.asList(
+            // findByEmail, findAllByEmailIn
+            new Definition(Account.class, new Index().on("email", ASC).unique().named("email_unique")),
+            // AccountDirectory, incrementFollowCounts
+            new Definition(Account.class, new Index().on("accountNo", ASC).unique().sparse().named("account_no_unique")),
+            // CelebrityRegistry
+            new Definition(Account.class, new Index().on("followerCount", DESC).named("follower_count")),
+            // findAllByAuthorEmailOrderByCreatedDateDesc, findAllByAuthorEmailIn
+            new Definition(Tweet.class, new Index().on("authorEmail", ASC).on("createdDate", DESC).on("_id", DESC).named("author_created_id")),
+            // findAllByHashTag (multikey)
+            new Definition(Tweet.class, new Index().on("hashTag", ASC).on("createdDate", DESC).on("_id", DESC).named("hashtag_created")),
+            // 트렌드 warm-up
+            new Definition(Tweet.class, new Index().on("createdDate", DESC).named("created")),
+            // findAllByFollowerNo, following 중복 방지
+            new Definition(Follow.class, new Index().on("followerNo", ASC).on("followingNo", ASC).unique().named("follower_following_no_unique"), true),
+            // findAllByFollowingNo, 셀럽 집계
+            new Definition(Follow.class, new Index().on("followingNo", ASC).named("following_no")),
+            // findByAccountEmailAndTweetId, findAllByAccountEmailAndTweetIdIn, 좋아요 중복 방지
+            new Definition(Favorite.class, new Index().on("accountEmail", ASC).on("tweetId", ASC).unique().named("account_tweet_unique"), true),
+            // findAllByTweetId
+            new Definition(Favorite.class, new Index().on("tweetId", ASC).on("createdDate", DESC).on("_id", DESC).named("tweet_created")),
+            new Definition(Comment.class, new Index().on("tweetId", ASC).on("createdAt", DESC).on("_id", DESC).named("tweet_created")),
+            // findAllByParentCommentId (답글 스레드), 답글만 색인한다.
+            new Definition(Comment.class, new Index().on("parentCommentId", ASC).on("createdAt", DESC).on("_id", DESC)
+                    .partial(PartialIndexFilter.of(Criteria.where("parentCommentId").exists(true))).named("parent_created")),
+            // 계정 삭제 정리
+            new Definition(Comment.class, new Index().on("authorEmail", ASC).named("author")),
+            // findAllByAccountEmailOrderByKeyword, deleteAllByKeywordAndAccountEmail
+            new Definition(Explore.class, new Index().on("accountEmail", ASC).on("keyword", ASC).named("account_keyword")),
+            // 검색 (ExploreService.getListByKeyword)
+            new Definition(Account.class, searchIndex()),
+            new Definition(Tweet.class, searchIndex()),
+            // findAllByOwnerEmail
+            new Definition(Timeline.class, new Index().on("ownerEmail", ASC).on("createdDate", DESC).on("tweetId", DESC).named("owner_created_tweet")),
+            // deleteAllByOwnerEmailAndAuthorEmail
+            new Definition(Timeline.class, new Index().on("ownerEmail", ASC).on("authorEmail", ASC).named("owner_author")),
+            // 트윗 삭제 정리 (CascadeCleaner)
+            new Definition(Timeline.class, new Index().on("tweetId", ASC).named("tweet")),
+            // CleanupJobRepository.claim
+            new Definition(CleanupJob.class, new Index().on("lockedUntil", ASC).on("createdDate", ASC).named("locked_created")));
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final AccountRepository accountRepository;
+    private final LikeCounter likeCounter;
+
+    private static IndexDefinition searchIndex() {
+        return new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .onField(SearchTerms.FIELD)
+                .withDefaultLanguage(SearchTerms.LANGUAGE)
+                .named("search_terms_text")
+                .build();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        provision().block();
+    }
+
+    public Mono<Void> provision() {
+        return Flux.fromIterable(DEFINITIONS)
+                .concatMap(this::ensure)
+                .then();
+    }
+
+    /**
+     * 좋아요/팔로우 중복 방지는 unique 인덱스의 DuplicateKeyException 에만 기대므로, 두 컬렉션은 기존 중복을 먼저 지우고 인덱스를 만든다.
+     * 계정처럼 어느 문서를 남길지 정할 수 없는 unique 인덱스는 중복을 로그로 남기고 기동을 멈춘다. 일반 인덱스는 실패해도 경고만 남긴다.
+     */
+    private Mono<String> ensure(Definition definition) {
+        if (definition.isDeduplicate()) {
+            return removeDuplicates(definition).then(ensureIndex(definition));
+        }
+        if (isUnique(definition.getIndex())) {
+            return rejectDuplicates(definition).then(ensureIndex(definition));
+        }
+        return ensureIndex(definition)
+                .onErrorResume(e -> {
+                    log.warn("failed to ensure index on {}: {}", definition.getType().getSimpleName(), definition.getIndex().getIndexKeys(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<String> ensureIndex(Definition definition) {
+        return reactiveMongoTemplate.indexOps(definition.getType())
+                .ensureIndex(definition.getIndex())
+                .doOnNext(name -> log.info("ensured index {} on {}", name, definition.getType().getSimpleName()));
+    }
+
+    /**
+     * unique 인덱스 키가 같은 문서 중 가장 오래된(_id 가 가장 작은) 것만 남기고 지운 뒤, 지운 만큼 카운터를 되돌린다. 지운 문서 수를 돌려준다.
+     */
+    Mono<Long> removeDuplicates(Definition definition) {
+        MongoCollection<Document> collection = collection(definition);
+        return duplicateGroups(definition)
+                .concatMap(group -> {
+                    List<Object> ids = group.getList("ids", Object.class);
+                    return Mono.from(collection.deleteMany(Filters.in("_id", ids.subList(1, ids.size()))))
+                            .map(DeleteResult::getDeletedCount)
+                            .flatMap(removed -> revertCounters(definition, group.get("_id", Document.class), removed).thenReturn(removed));
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.warn("removed {} duplicated {} documents before creating unique index {}",
+                                count, definition.getType().getSimpleName(), definition.getIndex().getIndexKeys());
+                    }
+                });
+    }
+
+    /**
+     * 지운 좋아요만큼 트윗의 countLike 를, 지운 팔로우만큼 양쪽 계정의 followingCount/followerCount 를 줄인다.
+     */
+    private Mono<Void> revertCounters(Definition definition, Document key, long removed) {
+        if (removed == 0) {
+            return Mono.empty();
+        }
+        if (definition.getType() == Favorite.class) {
+            likeCounter.increment(key.getString("tweetId"), -removed);
+            return Mono.empty();
+        }
+        if (definition.getType() == Follow.class) {
+            return accountRepository.incrementFollowCounts(key.getLong("followerNo"),
+                    Collections.singletonList(key.getLong("followingNo")), (int) -removed);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 중복된 키와 문서 id 를 모두 로그로 남기고 기동을 멈춘다. 중복이 없으면 아무것도 하지 않는다.
+     */
+    Mono<Void> rejectDuplicates(Definition definition) {
+        return duplicateGroups(definition)
+                .doOnNext(group -> log.error("duplicated {} documents for unique index {}: key={}, ids={}",
+                        definition.getType().getSimpleName(), definition.getIndex().getIndexKeys(), group.get("_id"), group.get("ids")))
+                .count()
+                .flatMap(groups -> groups == 0 ? Mono.<Void>empty() : Mono.error(new IllegalStateException(
+                        groups + " duplicated key groups in " + definition.getType().getSimpleName()
+                                + " block unique index " + definition.getIndex().getIndexKeys())));
+    }
+
+    /**
+     * unique 인덱스 키가 같은 문서를 키별로 묶는다. ids 는 _id 오름차순이다.
+     */
+    private Flux<Document> duplicateGroups(Definition definition) {
+        Document keys = definition.getIndex().getIndexKeys();
+        Document groupId = new Document();
+        Document exists = new Document();
+        keys.keySet().forEach(key -> {
+            groupId.append(key.replace('.', '_'), "$" + key);
+            exists.append(key, new Document("$exists", true));
+        });
+        List<Document> pipeline = new ArrayList<>();
+        // sparse 인덱스는 키가 없는 문서를 색인하지 않으므로 중복으로 보지 않는다.
+        if (Boolean.TRUE.equals(definition.getIndex().getIndexOptions().get("sparse"))) {
+            pipeline.add(new Document("$match", exists));
+        }
+        pipeline.add(new Document("$sort", new Document("_id", 1)));
+        pipeline.add(new Document("$group", new Document("_id", groupId)
+                .append("ids", new Document("$push", "$_id"))
+                .append("count", new Document("$sum", 1))));
+        pipeline.add(new Document("$match", new Document("count", new Document("$gt", 1))));
+        return Flux.from(collection(definition).aggregate(pipeline).allowDiskUse(true));
+    }
+
+    private MongoCollection<Document> collection(Definition definition) {
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(definition.getType()));
+    }
+
+    private boolean isUnique(IndexDefinition index) {
+        return Boolean.TRUE.equals(index.getIndexOptions().get("unique"));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Definition {
+        private final Class<?> type;
+        private final IndexDefinition index;
+        // true 면 인덱스를 만들기 전에 중복 문서를 지운다.
+        private final boolean deduplicate;
+
+        Definition(Class<?> type, IndexDefinition index) {
+            this(type, index, false);
+        }
+    }
+}
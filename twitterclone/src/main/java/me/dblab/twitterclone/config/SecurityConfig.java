@@ -18,6 +18,8 @@ import org.springframework.web.reactive.config.CorsRegistry;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
 import reactor.core.publisher.Mono;
 
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
+
 @Slf4j @RequiredArgsConstructor
 @EnableWebFluxSecurity
 @Configuration
@@ -32,7 +34,8 @@ public class SecurityConfig implements WebFluxConfigurer {
         registry.addMapping("/**")
                 .allowedOrigins(CorsConfiguration.ALL)
                 .allowedMethods(CorsConfiguration.ALL)
-                .allowedHeaders(CorsConfiguration.ALL);
+                .allowedHeaders(CorsConfiguration.ALL)
+                .exposedHeaders(NEXT_CURSOR_HEADER);
     }
 
     @Bean
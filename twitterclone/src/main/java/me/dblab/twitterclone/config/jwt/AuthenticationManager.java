@@ -1,17 +1,12 @@
 package me.dblab.twitterclone.config.jwt;
 
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
-import java.util.List;
-import java.util.stream.Collectors;
-import static me.dblab.twitterclone.common.Constants.AUTHORITIES_KEY;
 /**
  * Reference
  * https://github.com/ard333/spring-boot-webflux-jjwt
@@ -22,30 +17,22 @@ import static me.dblab.twitterclone.common.Constants.AUTHORITIES_KEY;
 @Slf4j
 public class AuthenticationManager implements ReactiveAuthenticationManager {
 
-    private final TokenProvider tokenProvider;
+    private final TokenCache tokenCache;
 
     @Override
-    @SuppressWarnings("unchecked")
     public Mono<Authentication> authenticate(Authentication authentication) {
         String authToken = authentication.getCredentials().toString();
-        String username;
+        VerifiedToken token;
 
         try {
-            username = tokenProvider.getUsernameFromToken(authToken);
+            token = tokenCache.verify(authToken);
         } catch (Exception e) {
-            username = null;
+            return Mono.empty();
         }
-        if (username != null && tokenProvider.isTokenExpired(authToken)) {
-            Claims claims = tokenProvider.getAllClaimsFromToken(authToken);
-            List<String> roles = claims.get(AUTHORITIES_KEY, List.class);
-            List authorities = roles.stream()
-                    .map(SimpleGrantedAuthority::new).collect(Collectors.toList());
-
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(username, null, authorities);
-
-            return Mono.just(auth);
+        if (token.getUsername() == null || token.isExpired()) {
+            return Mono.empty();
         }
 
-        return Mono.empty();
+        return Mono.just(new UsernamePasswordAuthenticationToken(token.getUsername(), null, token.getAuthorities()));
     }
 }
@@ -0,0 +1,65 @@
+package me.dblab.twitterclone.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import me.dblab.twitterclone.common.AppProperties;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증된 JWT 를 토큰의 SHA-256 해시로 캐시한다.
+ * 각 항목은 토큰의 exp 시각에 만료되므로 만료된 토큰이 캐시를 통해 통과하지 않는다.
+ */
+@Component
+public class TokenCache {
+
+    private final TokenProvider tokenProvider;
+    private final Cache<String, VerifiedToken> tokens;
+
+    public TokenCache(TokenProvider tokenProvider, AppProperties appProperties) {
+        this.tokenProvider = tokenProvider;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(appProperties.getTokenCacheSize())
+                .expireAfter(new UntilExpiration())
+                .build();
+    }
+
+    /**
+     * 검증에 실패하면 TokenProvider 의 예외를 그대로 던지며, 실패한 토큰은 캐시하지 않는다.
+     */
+    public VerifiedToken verify(String authToken) {
+        return tokens.get(hash(authToken), key -> tokenProvider.verify(authToken));
+    }
+
+    private String hash(String authToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(authToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class UntilExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(token.getExpiration().getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -5,13 +5,18 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 import me.dblab.twitterclone.account.Account;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import static me.dblab.twitterclone.common.Constants.ACCESS_TOKEN_VALIDITY_SECONDS;
+import static me.dblab.twitterclone.common.Constants.AUTHORITIES_KEY;
 import static me.dblab.twitterclone.common.Constants.SIGNING_KEY;
 /**
  * Reference
@@ -39,6 +44,19 @@ public class TokenProvider {
         return getClaimsFromToken(authToken, Claims::getExpiration);
     }
 
+    /**
+     * 토큰을 한 번만 파싱해 서명을 검증하고 username, 권한, 만료 시각을 꺼낸다.
+     */
+    @SuppressWarnings("unchecked")
+    public VerifiedToken verify(String authToken) {
+        Claims claims = getAllClaimsFromToken(authToken);
+        List<String> roles = claims.get(AUTHORITIES_KEY, List.class);
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        return new VerifiedToken(claims.getSubject(), authorities, claims.getExpiration());
+    }
+
     public Claims getAllClaimsFromToken(String authToken) {
         return Jwts.parser()
                 .setSigningKey(Base64.getEncoder().encodeToString(SIGNING_KEY.getBytes()))
@@ -48,7 +66,7 @@ public class TokenProvider {
 
     public String generateToken(Account account) {
         final Map<String, Object> authorities = new HashMap<>();
-        authorities.put("role", account.getRoles());
+        authorities.put(AUTHORITIES_KEY, account.getRoles());
         return doGenerateToken(authorities, account.getEmail());
     }
 
@@ -0,0 +1,23 @@
+package me.dblab.twitterclone.config.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 서명 검증이 끝난 토큰의 내용. TokenCache 에 저장되어 같은 토큰을 다시 파싱하지 않도록 한다.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final Date expiration;
+
+    public boolean isExpired() {
+        return !expiration.after(new Date());
+    }
+}
@@ -17,4 +17,9 @@ public class Explore {
     private LocalDateTime searchedAt;
     private String accountEmail;
 
+    public static Explore from(ExploreDto exploreDto) {
+        Explore explore = new Explore();
+        explore.setKeyword(exploreDto.getKeyword());
+        return explore;
+    }
 }
@@ -1,18 +1,28 @@
 package me.dblab.twitterclone.explore;
 
 import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.common.Cursor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
+import static me.dblab.twitterclone.common.Constants.DEFAULT_PAGE_SIZE;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/explores")
 public class ExploreController {
 
+    private static final String ACCOUNT_EVENT = "account";
+    private static final String TWEET_EVENT = "tweet";
+
     private final ExploreService exploreService;
     private final ExploreValidator exploreValidator;
 
@@ -22,13 +32,38 @@ public class ExploreController {
     }
 
     @PostMapping("/keywords")
-    public Flux<Object> getListBySearch(@RequestBody ExploreDto exploreDto)   {
+    public Flux<Object> getListBySearch(@RequestBody ExploreDto exploreDto,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit)   {
         return Mono.just(exploreDto)
                 .filter(this::validate)
-                .flatMapMany(exploreService::getListByKeyword)
+                .flatMapMany(dto -> exploreService.getListByKeyword(dto, Math.max(0, page), Cursor.limit(limit)))
                 .switchIfEmpty(Flux.empty());
     }
 
+    /**
+     * 검색 결과를 모으지 않고 계정, 트윗 순으로 읽히는 대로 한 줄에 하나씩 내려준다.
+     */
+    @PostMapping(value = "/keywords", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<Object> streamListBySearch(@RequestBody ExploreDto exploreDto,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit)   {
+        return getListBySearch(exploreDto, page, limit);
+    }
+
+    /**
+     * SSE 로 검색 결과를 내려준다. 이벤트 이름(account, tweet)으로 결과 종류를 구분한다.
+     */
+    @PostMapping(value = "/keywords", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamEventsBySearch(@RequestBody ExploreDto exploreDto,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit)   {
+        return getListBySearch(exploreDto, page, limit)
+                .map(result -> ServerSentEvent.builder(result)
+                        .event(result instanceof Account ? ACCOUNT_EVENT : TWEET_EVENT)
+                        .build());
+    }
+
     @PostMapping
     public Mono<ResponseEntity> saveKeyword(@RequestBody ExploreDto exploreDto)    {
         return Mono.just(exploreDto)
@@ -3,14 +3,16 @@ package me.dblab.twitterclone.explore;
 import lombok.RequiredArgsConstructor;
 import me.dblab.twitterclone.account.AccountRepository;
 import me.dblab.twitterclone.account.AccountService;
+import me.dblab.twitterclone.common.SearchTerms;
 import me.dblab.twitterclone.tweet.TweetRepository;
-import org.modelmapper.ModelMapper;
+import me.dblab.twitterclone.tweet.TweetViewLoader;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -18,9 +20,9 @@ public class ExploreService {
 
     private final ExploreRepository exploreRepository;
     private final AccountService accountService;
-    private final ModelMapper modelMapper;
     private final TweetRepository tweetRepository;
     private final AccountRepository accountRepository;
+    private final TweetViewLoader tweetViewLoader;
 
     public Flux<Explore> getSavedExplore() {
         return accountService.findCurrentUser()
@@ -28,11 +30,18 @@ public class ExploreService {
                         .filter(Explore::isSaved));
     }
 
-    public Flux<Object> getListByKeyword(ExploreDto exploreDto) {
+    /**
+     * searchTerms text 인덱스로 계정과 트윗을 접두어 검색한다. 계정, 트윗 순으로 각각 관련도 순서의 page 번째 페이지를 내려준다.
+     * 트윗은 작성자와 좋아요 여부를 붙인 TweetView 로 내려준다.
+     */
+    public Flux<Object> getListByKeyword(ExploreDto exploreDto, int page, int limit) {
         return saveExplore(exploreDto)
                 .flatMap(exploreRepository::save)
-                .flatMapMany(exp -> accountRepository.findAllByUsernameContainingOrNicknameContainingOrderByCreatedDate(exp.getKeyword(), exp.getKeyword())
-                    .mergeWith(tweetRepository.findAllByContentContainingOrderByCreatedDateDesc(exp.getKeyword())));
+                .flatMapMany(exp -> {
+                    List<String> terms = SearchTerms.query(exp.getKeyword());
+                    return Flux.concat(accountRepository.search(terms, page, limit),
+                            tweetViewLoader.load(exp.getAccountEmail(), tweetRepository.search(terms, page, limit)));
+                });
     }
 
     public Mono<ResponseEntity> saveKeyword(ExploreDto exploreDto) {
@@ -56,7 +65,7 @@ public class ExploreService {
     private Mono<Explore> saveExplore(ExploreDto exploreDto)  {
         return accountService.findCurrentUser()
                 .map(ac -> {
-                    Explore explore = modelMapper.map(exploreDto, Explore.class);
+                    Explore explore = Explore.from(exploreDto);
                     explore.setAccountEmail(ac.getEmail());
                     explore.setSearchedAt(LocalDateTime.now());
                     explore.setSaved(false);
@@ -0,0 +1,52 @@
+package me.dblab.twitterclone.explore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.common.SearchTerms;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * searchTerms 가 없는 기존 트윗과 계정에 검색어를 채운다. 기동을 막지 않도록 백그라운드에서 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchTermsBackfill implements ApplicationRunner {
+
+    private static final int CONCURRENCY = 16;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill(Tweet.class, Tweet::getId, tweet -> SearchTerms.of(tweet.getContent()))
+                .then(backfill(Account.class, Account::getId, account -> SearchTerms.of(account.getUsername(), account.getNickname())))
+                .subscribe(null, e -> log.warn("search terms backfill failed", e));
+    }
+
+    <T> Mono<Long> backfill(Class<T> type, Function<T, String> idOf, Function<T, List<String>> termsOf) {
+        Query missing = Query.query(Criteria.where(SearchTerms.FIELD).exists(false));
+        return reactiveMongoTemplate.find(missing, type)
+                .flatMap(document -> reactiveMongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(idOf.apply(document))),
+                        Update.update(SearchTerms.FIELD, termsOf.apply(document)),
+                        type), CONCURRENCY)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("filled search terms for {} {} documents", count, type.getSimpleName());
+                    }
+                });
+    }
+}
@@ -3,6 +3,7 @@ package me.dblab.twitterclone.favorite;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
 
 @Getter @Setter
 @AllArgsConstructor @NoArgsConstructor
@@ -13,5 +14,6 @@ public class Favorite {
     private String id;
     private String accountEmail;
     private String tweetId;
+    private LocalDateTime createdDate;
 
 }
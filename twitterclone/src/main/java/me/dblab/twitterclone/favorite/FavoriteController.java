@@ -2,10 +2,16 @@ package me.dblab.twitterclone.favorite;
 
 import lombok.RequiredArgsConstructor;
 import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.common.BatchResult;
+import me.dblab.twitterclone.common.Cursor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.List;
+
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
+import static me.dblab.twitterclone.common.Constants.DEFAULT_PAGE_SIZE;
 
 @RestController
 @RequiredArgsConstructor
@@ -15,8 +21,12 @@ public class FavoriteController {
     private final FavoriteService favoriteService;
 
     @GetMapping("/{tweetId}")
-    public Flux<Account> getLikeAccounts(@PathVariable String tweetId)   {
-        return favoriteService.getAccounts(tweetId);
+    public Mono<ResponseEntity<List<Account>>> getLikeAccounts(@PathVariable String tweetId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit)   {
+        return Cursor.parse(cursor)
+                .flatMap(decoded -> favoriteService.getAccounts(tweetId, decoded, Cursor.limit(limit)))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
 
     @PostMapping("/{tweetId}")
@@ -24,6 +34,11 @@ public class FavoriteController {
         return favoriteService.saveLike(tweetId);
     }
 
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public Flux<BatchResult> likeTweets(@RequestBody Flux<FavoriteDto> favoriteDtos) {
+        return favoriteService.saveLikes(favoriteDtos);
+    }
+
     @DeleteMapping("/{favoriteId}")
     public Mono<ResponseEntity> unlikeTweet(@PathVariable String favoriteId)   {
         return favoriteService.deleteLike(favoriteId);
@@ -0,0 +1,10 @@
+package me.dblab.twitterclone.favorite;
+
+import lombok.*;
+
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class FavoriteDto {
+
+    private String tweetId;
+}
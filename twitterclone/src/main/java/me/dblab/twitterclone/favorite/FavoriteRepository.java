@@ -3,10 +3,12 @@ package me.dblab.twitterclone.favorite;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Collection;
 
-public interface FavoriteRepository extends ReactiveMongoRepository<Favorite, String> {
+public interface FavoriteRepository extends ReactiveMongoRepository<Favorite, String>, FavoriteRepositoryCustom {
 
     Flux<Favorite> findAllByTweetId(String tweetId);
     Mono<Favorite> findByAccountEmail(String email); // test용
     Mono<Favorite> findByAccountEmailAndTweetId(String accountEmail, String tweetId);
+    Flux<Favorite> findAllByAccountEmailAndTweetIdIn(String accountEmail, Collection<String> tweetIds);
 }
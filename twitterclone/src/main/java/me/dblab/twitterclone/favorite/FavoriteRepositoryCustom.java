@@ -0,0 +1,10 @@
+package me.dblab.twitterclone.favorite;
+
+import me.dblab.twitterclone.common.Cursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface FavoriteRepositoryCustom {
+    Flux<Favorite> findAllByTweetId(String tweetId, Cursor cursor, int limit);
+    Mono<Favorite> findAndRemoveById(String id);
+}
@@ -0,0 +1,25 @@
+package me.dblab.twitterclone.favorite;
+
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.Cursor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class FavoriteRepositoryCustomImpl implements FavoriteRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Favorite> findAllByTweetId(String tweetId, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("tweetId").is(tweetId), "createdDate", "id", limit), Favorite.class);
+    }
+
+    @Override
+    public Mono<Favorite> findAndRemoveById(String id) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Favorite.class);
+    }
+}
@@ -5,60 +5,137 @@ import lombok.extern.slf4j.Slf4j;
 import me.dblab.twitterclone.account.Account;
 import me.dblab.twitterclone.account.AccountRepository;
 import me.dblab.twitterclone.account.AccountService;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.BatchResult;
+import me.dblab.twitterclone.common.BulkWriter;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.tweet.LikeCounter;
 import me.dblab.twitterclone.tweet.Tweet;
 import me.dblab.twitterclone.tweet.TweetRepository;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FavoriteService {
 
+    private static final String UNKNOWN_TWEET = "unknown tweet";
+    private static final String ALREADY_LIKED = "already liked";
+
     private final FavoriteRepository favoriteRepository;
     private final AccountService accountService;
     private final TweetRepository tweetRepository;
     private final AccountRepository accountRepository;
+    private final LikeCounter likeCounter;
+    private final BulkWriter bulkWriter;
+    private final AppProperties appProperties;
 
 
-    public Flux<Account> getAccounts(String tweetId) {
+    public Mono<ResponseEntity<List<Account>>> getAccounts(String tweetId, Cursor cursor, int limit) {
         Mono<Tweet> tweetMono = tweetRepository.findById(tweetId);
 
-        return tweetMono.flatMapMany(tw -> favoriteRepository.findAllByTweetId(tweetId))
-                .flatMap(fav -> accountRepository.findAllByEmail(fav.getAccountEmail()));
-
+        return tweetMono.flatMap(tw -> favoriteRepository.findAllByTweetId(tweetId, cursor, limit).collectList())
+                .defaultIfEmpty(Collections.emptyList())
+                .flatMap(favorites -> accountRepository.findAllByEmailIn(favorites.stream().map(Favorite::getAccountEmail).collect(Collectors.toSet()))
+                        .collectMap(Account::getEmail)
+                        .map(accounts -> Cursor.page(likedAccounts(favorites, accounts),
+                                Cursor.next(favorites, limit, favorite -> Cursor.of(favorite.getCreatedDate(), favorite.getId())))));
     }
 
     public Mono<ResponseEntity> saveLike(String tweetId) {
+        // unique 인덱스로 좋아요를 먼저 insert 하고, 성공한 경우에만 countLike 변화량을 LikeCounter 에 쌓는다.
+        return accountService.findCurrentUser()
+                .flatMap(cu -> tweetRepository.existsById(tweetId)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(exists -> favoriteRepository.insert(
+                                Favorite.builder()
+                                        .tweetId(tweetId)
+                                        .accountEmail(cu.getEmail())
+                                        .createdDate(LocalDateTime.now())
+                                        .build()))
+                        .doOnNext(favorite -> likeCounter.increment(tweetId, 1))
+                        .<ResponseEntity>map(favorite -> new ResponseEntity<>(favorite, HttpStatus.CREATED))
+                        .onErrorResume(DuplicateKeyException.class, e -> favoriteRepository.findByAccountEmailAndTweetId(cu.getEmail(), tweetId)
+                                .map(favorite -> ResponseEntity.badRequest().body(favorite))));
+    }
+
+    /**
+     * NDJSON 으로 들어온 좋아요를 bulkBatchSize 개씩 처리한다. 트윗 존재 여부는 배치마다 한 번에 확인하고,
+     * 이미 좋아요한 트윗은 unique 인덱스에 걸려 400 이 된다. 저장된 항목만 LikeCounter 에 반영한다.
+     */
+    public Flux<BatchResult> saveLikes(Flux<FavoriteDto> favoriteDtos) {
         return accountService.findCurrentUser()
-                            .flatMap(cu ->
-                                favoriteRepository.findByAccountEmailAndTweetId(cu.getEmail(), tweetId)
-                                            .map(favorite1 -> ResponseEntity.badRequest().body(favorite1))
-                                            .switchIfEmpty(tweetRepository.findById(tweetId)
-                                            .flatMap(tweet -> {
-                                                tweet.setCountLike(tweet.getCountLike() + 1);
-                                                return tweetRepository.save(tweet);
-                                            }).flatMap(tweet -> favoriteRepository.save(
-                                                    Favorite.builder()
-                                                            .tweetId(tweetId)
-                                                            .accountEmail(cu.getEmail())
-                                                            .build()
-                                                    )).map(favorite -> new ResponseEntity<>(favorite, HttpStatus.CREATED))));
+                .flatMapMany(cu -> favoriteDtos.index()
+                        .buffer(appProperties.getBulkBatchSize())
+                        .concatMap(batch -> saveLikes(cu, batch)));
+    }
+
+    private Flux<BatchResult> saveLikes(Account account, List<Tuple2<Long, FavoriteDto>> batch) {
+        Set<String> tweetIds = batch.stream()
+                .map(item -> item.getT2().getTweetId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return tweetRepository.findAllById(tweetIds)
+                .map(Tweet::getId)
+                .collect(Collectors.toSet())
+                .flatMapMany(existing -> {
+                    BatchResult[] results = new BatchResult[batch.size()];
+                    List<Integer> positions = new ArrayList<>();
+                    List<Favorite> favorites = new ArrayList<>();
+                    for (int i = 0; i < batch.size(); i++) {
+                        String tweetId = batch.get(i).getT2().getTweetId();
+                        if (!existing.contains(tweetId)) {
+                            results[i] = BatchResult.badRequest(batch.get(i).getT1(), UNKNOWN_TWEET);
+                            continue;
+                        }
+                        positions.add(i);
+                        favorites.add(Favorite.builder()
+                                .tweetId(tweetId)
+                                .accountEmail(account.getEmail())
+                                .createdDate(LocalDateTime.now())
+                                .build());
+                    }
+                    return bulkWriter.insert(Favorite.class, favorites)
+                            .flatMapMany(ids -> {
+                                for (int j = 0; j < ids.size(); j++) {
+                                    long index = batch.get(positions.get(j)).getT1();
+                                    if (ids.get(j) == null) {
+                                        results[positions.get(j)] = BatchResult.badRequest(index, ALREADY_LIKED);
+                                        continue;
+                                    }
+                                    likeCounter.increment(favorites.get(j).getTweetId(), 1);
+                                    results[positions.get(j)] = BatchResult.created(index, ids.get(j));
+                                }
+                                return Flux.fromArray(results);
+                            });
+                });
     }
 
     public Mono<ResponseEntity> deleteLike(String id) {
-        Mono<Favorite> favoriteMono = favoriteRepository.findById(id);
+        // 동시에 취소 요청이 와도 findAndRemove 로 지운 요청만 countLike 를 감소시킨다.
+        return favoriteRepository.findAndRemoveById(id)
+                .doOnNext(deleted -> likeCounter.increment(deleted.getTweetId(), -1))
+                .then(Mono.just(ResponseEntity.ok().build()));
+    }
 
-        return favoriteMono
-                .map(deleteFavorite ->  tweetRepository.findById(deleteFavorite.getTweetId())
-                        .flatMap(delCnt -> {
-                            delCnt.setCountLike(delCnt.getCountLike() - 1);
-                            return tweetRepository.save(delCnt);
-                        }).subscribe()
-                ).then(favoriteRepository.deleteById(id))
-                .map(res -> new ResponseEntity<>(res, HttpStatus.OK));
+    private List<Account> likedAccounts(List<Favorite> favorites, Map<String, Account> accounts) {
+        return favorites.stream()
+                .map(favorite -> accounts.get(favorite.getAccountEmail()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 }
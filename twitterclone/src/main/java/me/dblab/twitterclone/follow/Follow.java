@@ -2,6 +2,7 @@ package me.dblab.twitterclone.follow;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Getter @Setter
@@ -12,7 +13,14 @@ public class Follow {
     @Id
     private String id;
 
+    private Long followingNo;
+
+    private Long followerNo;
+
+    // 저장하지 않는다. 응답과 타임라인 처리에 쓰도록 AccountDirectory 로 채운다.
+    @Transient
     private String followingEmail;
 
+    @Transient
     private String followerEmail;
 }
@@ -1,10 +1,14 @@
 package me.dblab.twitterclone.follow;
 
 import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.BatchResult;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/follows")
@@ -17,6 +21,11 @@ public class FollowController {
         return followService.following(followingEmail);
     }
 
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public Flux<BatchResult> following(@RequestBody Flux<FollowDto> followDtos) {
+        return followService.following(followDtos);
+    }
+
     @DeleteMapping("/{followId}")
     public Mono<ResponseEntity> unfollow(@PathVariable String followId) {
         return followService.unfollow(followId);
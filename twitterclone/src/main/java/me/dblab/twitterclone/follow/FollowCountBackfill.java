@@ -0,0 +1,52 @@
+package me.dblab.twitterclone.follow;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * followerCount/followingCount 가 없는 기존 계정의 카운터를 Follow 에서 세어 채운다. 기동을 막지 않도록 백그라운드에서 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FollowCountBackfill implements ApplicationRunner {
+
+    private static final int CONCURRENCY = 16;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final FollowRepository followRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill().subscribe(null, e -> log.warn("follow count backfill failed", e));
+    }
+
+    Mono<Long> backfill() {
+        Query missing = Query.query(new Criteria().orOperator(
+                Criteria.where("followerCount").exists(false),
+                Criteria.where("followingCount").exists(false))
+                .and("accountNo").exists(true));
+        missing.fields().include("accountNo");
+        return reactiveMongoTemplate.find(missing, Account.class)
+                .flatMap(account -> Mono.zip(followRepository.countByFollowingNo(account.getAccountNo()), followRepository.countByFollowerNo(account.getAccountNo()))
+                        .flatMap(counts -> reactiveMongoTemplate.updateFirst(
+                                Query.query(Criteria.where("id").is(account.getId())),
+                                Update.update("followerCount", counts.getT1()).set("followingCount", counts.getT2()),
+                                Account.class)), CONCURRENCY)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("filled follow counts for {} accounts", count);
+                    }
+                });
+    }
+}
@@ -0,0 +1,10 @@
+package me.dblab.twitterclone.follow;
+
+import lombok.*;
+
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class FollowDto {
+
+    private String followingEmail;
+}
@@ -0,0 +1,111 @@
+package me.dblab.twitterclone.follow;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.dblab.twitterclone.account.AccountDirectory;
+import me.dblab.twitterclone.common.AppProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * accountNo 별 팔로잉 목록 캐시. 타임라인을 만들 때마다 Follow 를 다시 읽지 않도록 한다.
+ * 목록은 정렬된 long[] 로 두고, email 이 필요하면 AccountDirectory 로 바꾼다.
+ * 전체 원소 수(followGraphCacheSize)와 TTL(followGraphCacheTtl)로 제한한다.
+ * 이 노드에서의 팔로우/언팔로우는 바로 반영하고, 다른 노드의 변경은 TTL 이 지나면 반영된다.
+ */
+@Component
+public class FollowGraph {
+
+    private static final int RESOLVE_SIZE = 500;
+
+    private final FollowRepository followRepository;
+    private final AccountDirectory accountDirectory;
+    private final AsyncCache<Long, long[]> followings;
+
+    public FollowGraph(FollowRepository followRepository, AccountDirectory accountDirectory, AppProperties appProperties) {
+        this.followRepository = followRepository;
+        this.accountDirectory = accountDirectory;
+        this.followings = Caffeine.newBuilder()
+                .maximumWeight(appProperties.getFollowGraphCacheSize())
+                .weigher((Long followerNo, long[] followingNos) -> followingNos.length + 1)
+                .expireAfterWrite(appProperties.getFollowGraphCacheTtl())
+                .buildAsync();
+    }
+
+    public Flux<String> followings(String followerEmail) {
+        return accountDirectory.numberOf(followerEmail)
+                .flatMap(this::followings)
+                .flatMapMany(followingNos -> Flux.fromStream(LongStream.of(followingNos).boxed())
+                        .buffer(RESOLVE_SIZE)
+                        .concatMap(accountDirectory::emailsOf));
+    }
+
+    public Mono<long[]> followings(Long followerNo) {
+        return Mono.fromFuture(followings.get(followerNo, (accountNo, executor) -> load(accountNo).toFuture()));
+    }
+
+    /**
+     * followingEmail 을 팔로우하는 계정의 email. fan-out 에서 한 번 읽고 버리므로 캐시하지 않는다.
+     */
+    public Flux<String> followers(String followingEmail) {
+        return accountDirectory.numberOf(followingEmail)
+                .flatMapMany(followRepository::findAllByFollowingNo)
+                .map(Follow::getFollowerNo)
+                .buffer(RESOLVE_SIZE)
+                .concatMap(accountDirectory::emailsOf);
+    }
+
+    // 로딩 중인 항목도 로딩이 끝난 뒤에 반영되도록 future 에 이어 붙인다.
+    public void follow(Long followerNo, Long followingNo) {
+        followings.asMap().computeIfPresent(followerNo, (accountNo, current) ->
+                current.thenApply(followingNos -> add(followingNos, followingNo)));
+    }
+
+    public void unfollow(Long followerNo, Long followingNo) {
+        followings.asMap().computeIfPresent(followerNo, (accountNo, current) ->
+                current.thenApply(followingNos -> remove(followingNos, followingNo)));
+    }
+
+    public void invalidate(Long followerNo) {
+        followings.synchronous().invalidate(followerNo);
+    }
+
+    private Mono<long[]> load(Long followerNo) {
+        return followRepository.findAllByFollowerNo(followerNo)
+                .map(Follow::getFollowingNo)
+                .collect(Collectors.toList())
+                .map(followingNos -> {
+                    long[] sorted = followingNos.stream().mapToLong(Long::longValue).toArray();
+                    Arrays.sort(sorted);
+                    return sorted;
+                });
+    }
+
+    static long[] add(long[] followingNos, long followingNo) {
+        int index = Arrays.binarySearch(followingNos, followingNo);
+        if (index >= 0) {
+            return followingNos;
+        }
+        int insertAt = -index - 1;
+        long[] updated = new long[followingNos.length + 1];
+        System.arraycopy(followingNos, 0, updated, 0, insertAt);
+        updated[insertAt] = followingNo;
+        System.arraycopy(followingNos, insertAt, updated, insertAt + 1, followingNos.length - insertAt);
+        return updated;
+    }
+
+    static long[] remove(long[] followingNos, long followingNo) {
+        int index = Arrays.binarySearch(followingNos, followingNo);
+        if (index < 0) {
+            return followingNos;
+        }
+        long[] updated = new long[followingNos.length - 1];
+        System.arraycopy(followingNos, 0, updated, 0, index);
+        System.arraycopy(followingNos, index + 1, updated, index, followingNos.length - index - 1);
+        return updated;
+    }
+}
@@ -4,7 +4,10 @@ import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface FollowRepository extends ReactiveMongoRepository<Follow, String> {
-    Flux<Follow> findAllByFollowerEmail(String followerEmail);
-    Mono<Follow> findByFollowingEmail(String followingEmail); //테스트를 위해 생성, 비즈니스 로직에서는 사용하지 말 것!
+public interface FollowRepository extends ReactiveMongoRepository<Follow, String>, FollowRepositoryCustom {
+    Flux<Follow> findAllByFollowerNo(Long followerNo);
+    Flux<Follow> findAllByFollowingNo(Long followingNo);
+    Mono<Long> countByFollowerNo(Long followerNo);
+    Mono<Long> countByFollowingNo(Long followingNo);
+    Mono<Follow> findByFollowingNo(Long followingNo); //테스트를 위해 생성, 비즈니스 로직에서는 사용하지 말 것!
 }
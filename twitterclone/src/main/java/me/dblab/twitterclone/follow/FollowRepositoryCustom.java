@@ -0,0 +1,7 @@
+package me.dblab.twitterclone.follow;
+
+import reactor.core.publisher.Mono;
+
+public interface FollowRepositoryCustom {
+    Mono<Follow> findAndDeleteById(String id);
+}
@@ -0,0 +1,21 @@
+package me.dblab.twitterclone.follow;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class FollowRepositoryCustomImpl implements FollowRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * 삭제한 문서를 돌려준다. 같은 팔로우를 동시에 지워도 한 요청만 받으므로 카운터를 한 번만 줄인다.
+     */
+    @Override
+    public Mono<Follow> findAndDeleteById(String id) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Follow.class);
+    }
+}
@@ -3,44 +3,185 @@ package me.dblab.twitterclone.follow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountCache;
+import me.dblab.twitterclone.account.AccountDirectory;
+import me.dblab.twitterclone.account.AccountRepository;
 import me.dblab.twitterclone.account.AccountService;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.BatchResult;
+import me.dblab.twitterclone.common.BulkWriter;
+import me.dblab.twitterclone.timeline.LiveTimeline;
+import me.dblab.twitterclone.timeline.TimelineService;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FollowService {
 
+    private static final String UNKNOWN_ACCOUNT = "unknown account";
+    private static final String ALREADY_FOLLOWING = "already following";
+
     private final FollowRepository followRepository;
     private final AccountService accountService;
+    private final TimelineService timelineService;
+    private final LiveTimeline liveTimeline;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final AccountDirectory accountDirectory;
+    private final FollowGraph followGraph;
+    private final BulkWriter bulkWriter;
+    private final AppProperties appProperties;
 
     public Mono<ResponseEntity<Follow>> following(String email) {
         Mono<Account> currentUser = accountService.findCurrentUser();
         Follow follow = new Follow();
         return accountService.isExistByEmail(email).map(account -> {
+            follow.setFollowingNo(account.getAccountNo());
             follow.setFollowingEmail(account.getEmail());
             return follow;
         }).flatMap(follow1 ->
             currentUser.map(cu -> {
+                follow1.setFollowerNo(cu.getAccountNo());
                 follow1.setFollowerEmail(cu.getEmail());
                 return follow1;
             })
         ).flatMap(followRepository::save)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty())
+                .flatMap(savedFollow -> followed(Collections.singletonList(savedFollow))
+                        .then(timelineService.backfill(savedFollow))
+                        .thenReturn(savedFollow))
                 .map(follow1 -> new ResponseEntity<>(follow1, HttpStatus.CREATED))
                 .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
 
+    /**
+     * NDJSON 으로 들어온 팔로우 요청을 bulkBatchSize 개씩 처리한다. 대상 계정 존재 여부는 배치마다 $in 한 번으로 확인하고,
+     * 이미 팔로우 중인 항목은 unique 인덱스에 걸려 400 이 된다.
+     */
+    public Flux<BatchResult> following(Flux<FollowDto> followDtos) {
+        return accountService.findCurrentUser()
+                .flatMapMany(cu -> followDtos.index()
+                        .buffer(appProperties.getBulkBatchSize())
+                        .concatMap(batch -> following(cu, batch)));
+    }
+
+    private Flux<BatchResult> following(Account follower, List<Tuple2<Long, FollowDto>> batch) {
+        Set<String> emails = batch.stream()
+                .map(item -> item.getT2().getFollowingEmail())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return accountRepository.findAllByEmailIn(emails)
+                .collectMap(Account::getEmail, Account::getAccountNo)
+                .flatMapMany(existing -> {
+                    BatchResult[] results = new BatchResult[batch.size()];
+                    List<Integer> positions = new ArrayList<>();
+                    List<Follow> follows = new ArrayList<>();
+                    for (int i = 0; i < batch.size(); i++) {
+                        String followingEmail = batch.get(i).getT2().getFollowingEmail();
+                        if (!existing.containsKey(followingEmail)) {
+                            results[i] = BatchResult.badRequest(batch.get(i).getT1(), UNKNOWN_ACCOUNT);
+                            continue;
+                        }
+                        positions.add(i);
+                        follows.add(Follow.builder()
+                                .followingNo(existing.get(followingEmail))
+                                .followingEmail(followingEmail)
+                                .followerNo(follower.getAccountNo())
+                                .followerEmail(follower.getEmail())
+                                .build());
+                    }
+                    List<Follow> followed = new ArrayList<>();
+                    return bulkWriter.insert(Follow.class, follows)
+                            .flatMapMany(ids -> Flux.range(0, ids.size())
+                                    .concatMap(j -> {
+                                        long index = batch.get(positions.get(j)).getT1();
+                                        if (ids.get(j) == null) {
+                                            results[positions.get(j)] = BatchResult.badRequest(index, ALREADY_FOLLOWING);
+                                            return Mono.empty();
+                                        }
+                                        Follow follow = follows.get(j);
+                                        follow.setId(ids.get(j));
+                                        results[positions.get(j)] = BatchResult.created(index, follow.getId());
+                                        followed.add(follow);
+                                        return timelineService.backfill(follow);
+                                    })
+                                    .then(Mono.defer(() -> followed(followed)))
+                                    .thenMany(Flux.fromArray(results)));
+                });
+    }
+
     public Mono<ResponseEntity> unfollow(String id) {
-        return followRepository.findById(id)
-                .flatMap(deleteFollow -> followRepository.deleteById(id))
+        return followRepository.findAndDeleteById(id)
+                .flatMap(this::withEmails)
+                .flatMap(this::unfollowed)
                 .map(res -> new ResponseEntity<>(res, HttpStatus.OK));
     }
 
-    public Flux<Follow> findFollowingEmails(String followerEmail) {
-        return followRepository.findAllByFollowerEmail(followerEmail);
+    public Flux<String> findFollowingEmails(String followerEmail) {
+        return followGraph.followings(followerEmail);
+    }
+
+    // 같은 follower 의 팔로우 목록
+    private Mono<Void> followed(List<Follow> follows) {
+        if (follows.isEmpty()) {
+            return Mono.empty();
+        }
+        follows.forEach(follow -> {
+            followGraph.follow(follow.getFollowerNo(), follow.getFollowingNo());
+            liveTimeline.follow(follow.getFollowerEmail(), follow.getFollowingEmail());
+        });
+        List<Long> followingNos = follows.stream().map(Follow::getFollowingNo).collect(Collectors.toList());
+        return accountRepository.incrementFollowCounts(follows.get(0).getFollowerNo(), followingNos, 1)
+                .doOnTerminate(() -> invalidate(follows));
+    }
+
+    // 이미 지워진 팔로우이므로 email 을 못 찾아도 그래프와 카운터는 번호로 되돌린다.
+    private Mono<Void> unfollowed(Follow follow) {
+        followGraph.unfollow(follow.getFollowerNo(), follow.getFollowingNo());
+        Mono<Void> evicted = Mono.empty();
+        if (follow.getFollowerEmail() != null && follow.getFollowingEmail() != null) {
+            liveTimeline.unfollow(follow.getFollowerEmail(), follow.getFollowingEmail());
+            evicted = timelineService.evict(follow);
+        }
+        return accountRepository.incrementFollowCounts(follow.getFollowerNo(), Collections.singletonList(follow.getFollowingNo()), -1)
+                .doOnTerminate(() -> invalidate(Collections.singletonList(follow)))
+                .then(evicted);
+    }
+
+    private Mono<Follow> withEmails(Follow follow) {
+        return Mono.zip(emailOf(follow.getFollowerNo()), emailOf(follow.getFollowingNo()))
+                .map(emails -> {
+                    follow.setFollowerEmail(emails.getT1().orElse(null));
+                    follow.setFollowingEmail(emails.getT2().orElse(null));
+                    return follow;
+                });
+    }
+
+    private Mono<Optional<String>> emailOf(Long accountNo) {
+        return accountDirectory.emailOf(accountNo)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    // 캐시된 계정의 카운터가 오래 남지 않도록 한다.
+    private void invalidate(List<Follow> follows) {
+        Stream.concat(Stream.of(follows.get(0).getFollowerEmail()), follows.stream().map(Follow::getFollowingEmail))
+                .filter(Objects::nonNull)
+                .forEach(accountCache::invalidate);
     }
 }
@@ -0,0 +1,34 @@
+package me.dblab.twitterclone.hashtag;
+
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import java.util.List;
+
+import static me.dblab.twitterclone.common.Constants.DEFAULT_PAGE_SIZE;
+import static me.dblab.twitterclone.common.Constants.DEFAULT_TREND_SIZE;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/hashtags")
+public class HashtagController {
+
+    private final HashtagService hashtagService;
+
+    @GetMapping("/{tag}/tweets")
+    public Mono<ResponseEntity<List<Tweet>>> getTweets(@PathVariable String tag,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return Cursor.parse(cursor)
+                .flatMap(decoded -> hashtagService.getTweets(tag, decoded, Cursor.limit(limit)))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping("/trending")
+    public Mono<List<Trend>> getTrending(@RequestParam(defaultValue = DEFAULT_TREND_SIZE) int limit) {
+        return hashtagService.getTrending(Cursor.limit(limit));
+    }
+}
@@ -0,0 +1,64 @@
+package me.dblab.twitterclone.hashtag;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 트윗 본문에서 해시태그를 뽑는다.
+ * 공백으로 나뉜 단어 중 '#' 로 시작하고 나머지가 모두 한글 자모/완성형, 영문, 숫자인 단어만 태그로 인정한다.
+ * 본문을 한 번만 훑고 태그가 있을 때만 Set 과 부분 문자열을 만든다.
+ */
+public final class HashtagExtractor {
+
+    private HashtagExtractor() {
+    }
+
+    /**
+     * 태그가 하나도 없으면 null.
+     */
+    public static Set<String> extract(String content) {
+        if (content == null) {
+            return null;
+        }
+        Set<String> tags = null;
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            // 단어의 시작으로 이동
+            while (i < length && isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i;
+            boolean valid = content.charAt(i) == '#';
+            i++;
+            while (i < length && !isWhitespace(content.charAt(i))) {
+                valid = valid && isTagChar(content.charAt(i));
+                i++;
+            }
+            if (valid && i - start > 1) {
+                if (tags == null) {
+                    tags = new HashSet<>();
+                }
+                tags.add(content.substring(start + 1, i));
+            }
+        }
+        return tags;
+    }
+
+    // ^[ㄱ-ㅎ가-힣a-zA-Z0-9]*$ 와 같은 문자 집합
+    static boolean isTagChar(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || (c >= '가' && c <= '힣')
+                || (c >= 'ㄱ' && c <= 'ㅎ');
+    }
+
+    // 기존 split("\\s") 과 같은 공백 문자
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,34 @@
+package me.dblab.twitterclone.hashtag;
+
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.tweet.LikeCounter;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class HashtagService {
+
+    private static final String PREFIX = "#";
+
+    private final TweetRepository tweetRepository;
+    private final TrendingHashtags trendingHashtags;
+    private final LikeCounter likeCounter;
+
+    public Mono<ResponseEntity<List<Tweet>>> getTweets(String tag, Cursor cursor, int limit) {
+        String normalized = tag.startsWith(PREFIX) ? tag.substring(PREFIX.length()) : tag;
+        return tweetRepository.findAllByHashTag(normalized, cursor, limit)
+                .map(likeCounter::apply)
+                .collectList()
+                .map(tweets -> Cursor.page(tweets, limit, tweet -> Cursor.of(tweet.getCreatedDate(), tweet.getId())));
+    }
+
+    public Mono<List<Trend>> getTrending(int limit) {
+        return Mono.fromSupplier(() -> trendingHashtags.top(limit));
+    }
+}
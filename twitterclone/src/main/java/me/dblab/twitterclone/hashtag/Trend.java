@@ -0,0 +1,12 @@
+package me.dblab.twitterclone.hashtag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class Trend {
+
+    private final String tag;
+    private final double score;
+}
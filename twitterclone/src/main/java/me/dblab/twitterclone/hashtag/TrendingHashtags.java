@@ -0,0 +1,159 @@
+package me.dblab.twitterclone.hashtag;
+
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 해시태그별 지수 감쇠 카운터. 사용 횟수는 trendingHalfLife 마다 절반으로 줄어들어 최근 사용량일수록 큰 점수를 가진다.
+ * 트윗 저장 시 갱신되며 트렌드 조회는 컬렉션 집계 없이 메모리에서 처리한다.
+ * 기동 시에는 최근 트윗(half-life 의 WARM_UP_HALF_LIVES 배)으로 카운터를 다시 채운다.
+ */
+@Slf4j
+@Component
+public class TrendingHashtags {
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+    private static final int WARM_UP_HALF_LIVES = 4;
+    private static final double MIN_SCORE = 0.01;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final long halfLifeMillis;
+    private final int maxTags;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, DecayedCounter> counters = new ConcurrentHashMap<>();
+    private Disposable pruner;
+
+    @Autowired
+    public TrendingHashtags(ReactiveMongoTemplate reactiveMongoTemplate, AppProperties appProperties) {
+        this(reactiveMongoTemplate, appProperties, System::currentTimeMillis);
+    }
+
+    TrendingHashtags(ReactiveMongoTemplate reactiveMongoTemplate, AppProperties appProperties, LongSupplier clock) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.halfLifeMillis = appProperties.getTrendingHalfLife().toMillis();
+        this.maxTags = appProperties.getTrendingMaxTags();
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        pruner = warmUp()
+                .thenMany(Flux.interval(PRUNE_INTERVAL, PRUNE_INTERVAL))
+                .onBackpressureDrop()
+                .subscribe(tick -> prune(), e -> log.warn("trending hashtags stopped", e));
+    }
+
+    @PreDestroy
+    public void stop() {
+        pruner.dispose();
+    }
+
+    public void record(Collection<String> tags) {
+        record(tags, clock.getAsLong());
+    }
+
+    public void record(Collection<String> tags, long at) {
+        if (tags == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        for (String tag : tags) {
+            counters.computeIfAbsent(tag, key -> new DecayedCounter(now)).add(at, now, halfLifeMillis);
+        }
+    }
+
+    public List<Trend> top(int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        long now = clock.getAsLong();
+        PriorityQueue<Trend> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Trend::getScore));
+        for (Map.Entry<String, DecayedCounter> entry : counters.entrySet()) {
+            double score = entry.getValue().score(now, halfLifeMillis);
+            if (top.size() < limit) {
+                top.offer(new Trend(entry.getKey(), score));
+            } else if (score > top.peek().getScore()) {
+                top.poll();
+                top.offer(new Trend(entry.getKey(), score));
+            }
+        }
+        List<Trend> trends = new ArrayList<>(top);
+        trends.sort(Comparator.comparingDouble(Trend::getScore).reversed().thenComparing(Trend::getTag));
+        return trends;
+    }
+
+    /**
+     * 거의 0이 된 카운터를 지우고, maxTags 를 넘으면 점수가 낮은 태그부터 지운다.
+     */
+    void prune() {
+        long now = clock.getAsLong();
+        counters.entrySet().removeIf(entry -> entry.getValue().score(now, halfLifeMillis) < MIN_SCORE);
+        if (counters.size() > maxTags) {
+            List<Trend> ranked = top(counters.size());
+            ranked.subList(Math.min(maxTags, ranked.size()), ranked.size())
+                    .forEach(trend -> counters.remove(trend.getTag()));
+        }
+    }
+
+    private Mono<Void> warmUp() {
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(halfLifeMillis * WARM_UP_HALF_LIVES));
+        Query recent = Query.query(Criteria.where("createdDate").gte(since).and("hashTag").exists(true));
+        recent.fields().include("hashTag").include("createdDate");
+        return reactiveMongoTemplate.find(recent, Tweet.class)
+                .doOnNext(tweet -> record(tweet.getHashTag(), tweet.getCreatedDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("failed to warm up trending hashtags", e);
+                    return Mono.empty();
+                });
+    }
+
+    static final class DecayedCounter {
+
+        private double value;
+        private long updatedAt;
+
+        DecayedCounter(long now) {
+            this.updatedAt = now;
+        }
+
+        synchronized void add(long at, long now, long halfLifeMillis) {
+            decay(now, halfLifeMillis);
+            value += Math.pow(0.5, (double) (now - Math.min(at, now)) / halfLifeMillis);
+        }
+
+        synchronized double score(long now, long halfLifeMillis) {
+            return value * Math.pow(0.5, (double) Math.max(0, now - updatedAt) / halfLifeMillis);
+        }
+
+        private void decay(long now, long halfLifeMillis) {
+            if (now > updatedAt) {
+                value = score(now, halfLifeMillis);
+                updatedAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package me.dblab.twitterclone.timeline;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.AppProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 팔로워 수가 celebrityFollowerThreshold 를 넘는 계정 목록.
+ * HYBRID 모드에서 이 계정들의 트윗은 fan-out 하지 않고 조회 시점에 가져온다.
+ * 목록에서 빠진 계정은 demotions 로 알리고, TimelineService 가 최근 트윗을 팔로워 타임라인에 채울 때까지
+ * isPulled 가 true 로 남아 조회 시점에 계속 가져온다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CelebrityRegistry {
+
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(5);
+
+    private final AccountRepository accountRepository;
+    private final AppProperties appProperties;
+
+    private final Set<String> demoting = ConcurrentHashMap.newKeySet();
+    private final DirectProcessor<String> demoted = DirectProcessor.create();
+    private final FluxSink<String> demotedSink = demoted.sink();
+    private volatile Set<String> celebrities = Collections.emptySet();
+    private Disposable refresher;
+
+    @PostConstruct
+    public void start() {
+        refresher = Flux.interval(Duration.ZERO, REFRESH_INTERVAL)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(e -> {
+                            log.warn("celebrity registry refresh failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.dispose();
+    }
+
+    public boolean contains(String email) {
+        return celebrities.contains(email);
+    }
+
+    public boolean isPulled(String email) {
+        return celebrities.contains(email) || demoting.contains(email);
+    }
+
+    public Flux<String> demotions() {
+        return demoted;
+    }
+
+    public void demotionDone(String email) {
+        demoting.remove(email);
+    }
+
+    // FollowService 가 유지하는 Account.followerCount 를 follower_count 인덱스로 읽는다.
+    public Mono<Set<String>> refresh() {
+        return accountRepository.findEmailsByFollowerCountGreaterThan(appProperties.getCelebrityFollowerThreshold())
+                .map(Account::getEmail)
+                .collect(Collectors.toSet())
+                .doOnNext(refreshed -> {
+                    Set<String> previous = celebrities;
+                    celebrities = refreshed;
+                    previous.stream()
+                            .filter(email -> !refreshed.contains(email))
+                            .forEach(email -> {
+                                demoting.add(email);
+                                demotedSink.next(email);
+                            });
+                });
+    }
+}
@@ -0,0 +1,212 @@
+package me.dblab.twitterclone.timeline;
+
+import com.mongodb.MongoException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.follow.FollowGraph;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.bson.BsonValue;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveChangeStreamOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 접속 중인 클라이언트에게 새 트윗을 실시간으로 보낸다.
+ * tweet 컬렉션의 change stream 을 노드마다 하나만 구독하고, 작성자 email -> 접속 세션 인덱스로 팔로워에게만 전달한다.
+ * 인덱스는 접속 시 FollowGraph 에서 만들고 팔로우/언팔로우 때 갱신한다.
+ * 세션마다 liveBufferSize 만큼만 쌓아 두고, 느린 클라이언트는 오래된 트윗부터 버린다.
+ * change stream 은 접속한 세션이 있을 때만 열고, 끊기면 마지막 resume token 부터 다시 연다.
+ * token 이 oplog 에서 밀려나 이어 갈 수 없으면 token 을 버리고 현재 시점부터 다시 연다. 그 사이의 트윗은 피드 조회로만 보인다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveTimeline {
+
+    private static final Duration FIRST_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+    private static final String NON_RESUMABLE_LABEL = "NonResumableChangeStreamError";
+    // CappedPositionLost, ChangeStreamFatalError, ChangeStreamHistoryLost
+    private static final Set<Integer> NON_RESUMABLE_CODES = new HashSet<>(Arrays.asList(136, 280, 286));
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final FollowGraph followGraph;
+    private final AppProperties appProperties;
+
+    // 작성자 email -> 그 작성자를 팔로우하는(또는 본인인) 세션
+    private final ConcurrentHashMap<String, Set<Session>> sessionsByAuthor = new ConcurrentHashMap<>();
+    // 접속한 계정 email -> 세션
+    private final ConcurrentHashMap<String, Set<Session>> sessionsByAccount = new ConcurrentHashMap<>();
+
+    private volatile BsonValue resumeToken;
+    private Disposable changeStream;
+    private int connected;
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (changeStream != null) {
+            changeStream.dispose();
+            changeStream = null;
+        }
+    }
+
+    /**
+     * email 계정의 실시간 타임라인. 구독을 끊으면 세션도 정리된다.
+     */
+    public Flux<Tweet> connect(String email) {
+        return Flux.<Tweet>create(sink -> {
+                    Session session = new Session(email, sink);
+                    open(session);
+                    sink.onDispose(() -> close(session));
+                }, FluxSink.OverflowStrategy.IGNORE)
+                .onBackpressureBuffer(appProperties.getLiveBufferSize(),
+                        dropped -> log.debug("live timeline of {} dropped tweet {}", email, dropped.getId()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    public void follow(String followerEmail, String followingEmail) {
+        sessionsByAccount.getOrDefault(followerEmail, Collections.emptySet())
+                .forEach(session -> session.subscribe(followingEmail));
+    }
+
+    public void unfollow(String followerEmail, String followingEmail) {
+        // 본인 트윗은 계속 받는다.
+        if (followerEmail.equals(followingEmail)) {
+            return;
+        }
+        sessionsByAccount.getOrDefault(followerEmail, Collections.emptySet())
+                .forEach(session -> session.unsubscribe(followingEmail));
+    }
+
+    int sessions(String authorEmail) {
+        return sessionsByAuthor.getOrDefault(authorEmail, Collections.emptySet()).size();
+    }
+
+    void dispatch(Tweet tweet) {
+        sessionsByAuthor.getOrDefault(tweet.getAuthorEmail(), Collections.emptySet())
+                .forEach(session -> session.sink.next(tweet));
+    }
+
+    private void open(Session session) {
+        add(sessionsByAccount, session.email, session);
+        session.subscribe(session.email);
+        // 인덱스에 먼저 등록해 두어야 팔로잉 목록을 읽는 동안 들어온 팔로우도 반영된다.
+        session.loader = followGraph.followings(session.email)
+                .subscribe(session::subscribe, e -> log.warn("failed to load followings of {}", session.email, e));
+        connected();
+    }
+
+    private void close(Session session) {
+        session.closed = true;
+        session.loader.dispose();
+        remove(sessionsByAccount, session.email, session);
+        session.authors.forEach(author -> remove(sessionsByAuthor, author, session));
+        disconnected();
+    }
+
+    private synchronized void connected() {
+        if (connected++ == 0) {
+            changeStream = Flux.defer(this::listen)
+                    .doOnError(e -> {
+                        if (resumeToken != null && isNotResumable(e)) {
+                            log.warn("tweet change stream cannot resume, reopening from now", e);
+                            resumeToken = null;
+                            return;
+                        }
+                        log.warn("tweet change stream failed, reconnecting", e);
+                    })
+                    .retryBackoff(Long.MAX_VALUE, FIRST_BACKOFF, MAX_BACKOFF)
+                    .subscribe(event -> {
+                        resumeToken = event.getResumeToken();
+                        if (event.getBody() != null) {
+                            dispatch(event.getBody());
+                        }
+                    });
+        }
+    }
+
+    private synchronized void disconnected() {
+        if (--connected == 0) {
+            stop();
+            // 다시 열 때는 그 사이에 쌓인 트윗을 보내지 않도록 현재 시점부터 받는다.
+            resumeToken = null;
+        }
+    }
+
+    private Flux<ChangeStreamEvent<Tweet>> listen() {
+        ReactiveChangeStreamOperation.ChangeStreamWithFilterAndProjection<Tweet> stream = reactiveMongoTemplate.changeStream(Tweet.class)
+                .watchCollection(Tweet.class)
+                .filter(Criteria.where("operationType").is("insert"));
+        BsonValue token = resumeToken;
+        return token == null ? stream.listen() : stream.resumeAfter(token).listen();
+    }
+
+    static boolean isNotResumable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException) {
+                MongoException mongoException = (MongoException) cause;
+                return mongoException.hasErrorLabel(NON_RESUMABLE_LABEL) || NON_RESUMABLE_CODES.contains(mongoException.getCode());
+            }
+        }
+        return false;
+    }
+
+    private static void add(ConcurrentHashMap<String, Set<Session>> index, String key, Session session) {
+        index.compute(key, (k, sessions) -> {
+            Set<Session> updated = sessions == null ? ConcurrentHashMap.newKeySet() : sessions;
+            updated.add(session);
+            return updated;
+        });
+    }
+
+    private static void remove(ConcurrentHashMap<String, Set<Session>> index, String key, Session session) {
+        index.computeIfPresent(key, (k, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private final class Session {
+
+        private final String email;
+        private final FluxSink<Tweet> sink;
+        private final Set<String> authors = ConcurrentHashMap.newKeySet();
+        private volatile Disposable loader = () -> { };
+        private volatile boolean closed;
+
+        private Session(String email, FluxSink<Tweet> sink) {
+            this.email = email;
+            this.sink = sink;
+        }
+
+        private void subscribe(String authorEmail) {
+            if (authors.add(authorEmail)) {
+                add(sessionsByAuthor, authorEmail, this);
+                // close 와 겹쳐 정리 이후에 등록되었으면 되돌린다.
+                if (closed) {
+                    remove(sessionsByAuthor, authorEmail, this);
+                }
+            }
+        }
+
+        private void unsubscribe(String authorEmail) {
+            if (authors.remove(authorEmail)) {
+                remove(sessionsByAuthor, authorEmail, this);
+            }
+        }
+    }
+}
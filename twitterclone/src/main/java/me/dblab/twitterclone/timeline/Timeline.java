@@ -0,0 +1,23 @@
+package me.dblab.twitterclone.timeline;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Document
+public class Timeline {
+
+    @Id
+    private String id;
+
+    private String ownerEmail;
+
+    private String tweetId;
+
+    private String authorEmail;
+
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,82 @@
+package me.dblab.twitterclone.timeline;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+
+/**
+ * PUSH/HYBRID 모드로 바꾸기 전에 쓴 트윗과 팔로우를 계정별 타임라인에 채운다. 기동을 막지 않도록 백그라운드에서 실행한다.
+ * 계정을 id 순으로 BATCH_SIZE 개씩 처리하고 마지막 id 를 저장하므로, 중간에 멈추면 다음 기동 때 이어서 실행한다.
+ * 끝날 때까지 TimelineService 는 PULL 로 읽는다. PULL/IN_QUERY 모드에서는 fan-out 을 하지 않으므로 진행 상황을 지워
+ * 다시 PUSH/HYBRID 로 바꾸면 처음부터 채운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimelineBackfill implements ApplicationRunner {
+
+    static final String PROGRESS_ID = "timeline";
+    private static final int BATCH_SIZE = 100;
+    private static final int CONCURRENCY = 8;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final TimelineService timelineService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (timelineService.isPullMode()) {
+            reactiveMongoTemplate.remove(Query.query(Criteria.where("id").is(PROGRESS_ID)), TimelineBackfillProgress.class)
+                    .subscribe(null, e -> log.warn("failed to reset timeline backfill", e));
+            return;
+        }
+        backfill().subscribe(null, e -> log.warn("timeline backfill failed, reading timelines by pull until the next run", e));
+    }
+
+    Mono<Long> backfill() {
+        return reactiveMongoTemplate.findById(PROGRESS_ID, TimelineBackfillProgress.class)
+                .defaultIfEmpty(TimelineBackfillProgress.builder().id(PROGRESS_ID).build())
+                .flatMap(progress -> progress.isDone() ? Mono.just(0L) : backfill(progress.getLastAccountId()))
+                .doOnNext(count -> {
+                    timelineService.setBackfilled(true);
+                    if (count > 0) {
+                        log.info("filled timelines for {} accounts", count);
+                    }
+                });
+    }
+
+    private Mono<Long> backfill(String lastAccountId) {
+        Query remaining = new Query().with(Sort.by("id"));
+        if (lastAccountId != null) {
+            remaining.addCriteria(Criteria.where("id").gt(lastAccountId));
+        }
+        remaining.fields().include("email");
+        return reactiveMongoTemplate.find(remaining, Account.class)
+                .buffer(BATCH_SIZE)
+                .concatMap(this::backfillBatch)
+                .reduce(0L, Long::sum)
+                .flatMap(count -> save(Update.update("done", true)).thenReturn(count));
+    }
+
+    private Mono<Long> backfillBatch(List<Account> accounts) {
+        return Flux.fromIterable(accounts)
+                .flatMap(account -> timelineService.backfill(account.getEmail()), CONCURRENCY)
+                .then(save(Update.update("lastAccountId", accounts.get(accounts.size() - 1).getId())))
+                .thenReturn((long) accounts.size());
+    }
+
+    private Mono<Void> save(Update update) {
+        return reactiveMongoTemplate.upsert(Query.query(Criteria.where("id").is(PROGRESS_ID)), update, TimelineBackfillProgress.class)
+                .then();
+    }
+}
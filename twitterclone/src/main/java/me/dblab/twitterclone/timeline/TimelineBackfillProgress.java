@@ -0,0 +1,21 @@
+package me.dblab.twitterclone.timeline;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * TimelineBackfill 의 진행 상황. lastAccountId 까지의 계정은 타임라인을 채웠다.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+@Document
+public class TimelineBackfillProgress {
+
+    @Id
+    private String id;
+
+    private String lastAccountId;
+
+    private boolean done;
+}
@@ -0,0 +1,5 @@
+package me.dblab.twitterclone.timeline;
+
+public enum TimelineMode {
+    PULL, IN_QUERY, PUSH, HYBRID;
+}
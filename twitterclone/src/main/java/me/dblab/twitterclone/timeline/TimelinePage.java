@@ -0,0 +1,21 @@
+package me.dblab.twitterclone.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.springframework.lang.Nullable;
+import java.util.List;
+
+/**
+ * 피드 한 페이지. next 가 null 이면 마지막 페이지다.
+ */
+@Getter
+@AllArgsConstructor
+public class TimelinePage {
+
+    private final List<Tweet> tweets;
+
+    @Nullable
+    private final Cursor next;
+}
@@ -0,0 +1,8 @@
+package me.dblab.twitterclone.timeline;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface TimelineRepository extends ReactiveMongoRepository<Timeline, String>, TimelineRepositoryCustom {
+    Mono<Void> deleteAllByOwnerEmailAndAuthorEmail(String ownerEmail, String authorEmail);
+}
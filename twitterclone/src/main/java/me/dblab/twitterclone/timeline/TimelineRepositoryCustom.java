@@ -0,0 +1,11 @@
+package me.dblab.twitterclone.timeline;
+
+import me.dblab.twitterclone.common.Cursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+
+public interface TimelineRepositoryCustom {
+    Flux<Timeline> findAllByOwnerEmail(String ownerEmail, Cursor cursor, int limit);
+    Mono<Void> upsertAll(List<Timeline> entries);
+}
@@ -0,0 +1,49 @@
+package me.dblab.twitterclone.timeline;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.Cursor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class TimelineRepositoryCustomImpl implements TimelineRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Timeline> findAllByOwnerEmail(String ownerEmail, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("ownerEmail").is(ownerEmail), "createdDate", "tweetId", limit), Timeline.class);
+    }
+
+    /**
+     * 같은 ownerEmail/tweetId 항목이 이미 있으면 건너뛴다. fan-out 과 backfill 이 같은 트윗을 써도 중복되지 않는다.
+     * 필터는 owner_created_tweet 인덱스의 키를 그대로 쓴다.
+     */
+    @Override
+    public Mono<Void> upsertAll(List<Timeline> entries) {
+        if (entries.isEmpty()) {
+            return Mono.empty();
+        }
+        List<UpdateOneModel<Document>> upserts = entries.stream()
+                .map(entry -> {
+                    Document document = new Document();
+                    reactiveMongoTemplate.getConverter().write(entry, document);
+                    Document filter = new Document("ownerEmail", document.get("ownerEmail"))
+                            .append("createdDate", document.get("createdDate"))
+                            .append("tweetId", document.get("tweetId"));
+                    return new UpdateOneModel<Document>(filter, new Document("$setOnInsert", document), new UpdateOptions().upsert(true));
+                })
+                .collect(Collectors.toList());
+        return Mono.from(reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Timeline.class))
+                        .bulkWrite(upserts, new BulkWriteOptions().ordered(false)))
+                .then();
+    }
+}
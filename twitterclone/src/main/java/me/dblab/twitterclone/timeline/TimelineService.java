@@ -0,0 +1,272 @@
+package me.dblab.twitterclone.timeline;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.common.OrderedMerge;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.follow.FollowGraph;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.reactivestreams.Publisher;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 홈 타임라인을 관리한다.
+ * PUSH 모드에서는 트윗 저장 시 작성자와 팔로워의 타임라인에 트윗 id를 기록(fan-out-on-write)하고,
+ * 피드 조회는 ownerEmail 인덱스의 range scan 한 번으로 처리한다.
+ * HYBRID 모드에서는 셀럽 계정의 트윗만 조회 시점에 가져와 타임라인과 createdDate 순으로 병합한다.
+ * 셀럽에서 빠진 계정은 최근 트윗을 팔로워 타임라인에 채운 뒤에 조회 시점에 가져오지 않는다.
+ * PULL 모드에서는 팔로잉한 계정별 트윗을 OrderedMerge 로 병합해 상위 limit 개만 읽는다. 팔로잉이 timelineInQueryChunkSize 보다 많으면 IN_QUERY 처럼 읽는다.
+ * IN_QUERY 모드에서는 팔로잉 목록을 timelineInQueryChunkSize 단위로 나눠 authorEmail $in 쿼리로 읽고 청크끼리 병합한다.
+ * PUSH/HYBRID 모드라도 TimelineBackfill 이 기존 트윗을 타임라인에 채우기 전까지는 PULL 로 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    private static final int FETCH_SIZE = 100;
+    private static final int BACKFILL_SIZE = 200;
+    // Mongo 의 createdDate DESC 정렬처럼 날짜가 없는 트윗은 맨 뒤에 온다.
+    private static final Comparator<Tweet> LATEST_FIRST = Comparator.comparing(Tweet::getCreatedDate, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(Tweet::getId)
+            .reversed();
+
+    private final TimelineRepository timelineRepository;
+    private final TweetRepository tweetRepository;
+    private final FollowGraph followGraph;
+    private final CelebrityRegistry celebrityRegistry;
+    private final AppProperties appProperties;
+
+    private volatile boolean backfilled;
+    private Disposable demotions;
+
+    @PostConstruct
+    public void start() {
+        demotions = celebrityRegistry.demotions()
+                .onBackpressureBuffer()
+                .concatMap(authorEmail -> backfillDemoted(authorEmail)
+                        .onErrorResume(e -> {
+                            log.warn("failed to backfill timelines for demoted celebrity {}", authorEmail, e);
+                            return Mono.empty();
+                        })
+                        .doFinally(signal -> celebrityRegistry.demotionDone(authorEmail)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        demotions.dispose();
+    }
+
+    public Flux<Tweet> getTimeline(Account account, Cursor cursor, int limit) {
+        return slots(account.getEmail(), cursor, limit)
+                .filter(slot -> slot.getTweet() != null)
+                .map(Slot::getTweet);
+    }
+
+    /**
+     * 다음 cursor 는 트윗을 채우기 전의 타임라인 항목으로 정한다. 지워진 트윗 때문에 페이지가 limit 보다 작아져도 페이지네이션이 끝나지 않는다.
+     */
+    public Mono<TimelinePage> getTimelinePage(Account account, Cursor cursor, int limit) {
+        return slots(account.getEmail(), cursor, limit)
+                .collectList()
+                .map(slots -> new TimelinePage(
+                        slots.stream().map(Slot::getTweet).filter(Objects::nonNull).collect(Collectors.toList()),
+                        Cursor.next(slots, limit, Slot::getCursor)));
+    }
+
+    private Flux<Slot> slots(String email, Cursor cursor, int limit) {
+        if (!isPullMode() && !backfilled) {
+            return pull(email, cursor, limit).map(Slot::of);
+        }
+        switch (appProperties.getTimelineMode()) {
+            case PULL:
+                return pull(email, cursor, limit).map(Slot::of);
+            case IN_QUERY:
+                return inQuery(email, cursor, limit).map(Slot::of);
+            case HYBRID:
+                return hybrid(email, cursor, limit);
+            default:
+                return read(email, cursor, limit);
+        }
+    }
+
+    public Mono<Tweet> fanOut(Tweet tweet) {
+        return fanOut(tweet.getAuthorEmail(), Collections.singletonList(tweet)).thenReturn(tweet);
+    }
+
+    /**
+     * 한 작성자의 여러 트윗을 팔로워 목록을 한 번만 읽어 fan-out 한다.
+     */
+    public Mono<Void> fanOut(String authorEmail, List<Tweet> tweets) {
+        if (isPullMode() || tweets.isEmpty()) {
+            return Mono.empty();
+        }
+        Flux<String> ownerEmails = Flux.just(authorEmail);
+        if (!isPulled(authorEmail)) {
+            ownerEmails = ownerEmails.concatWith(followGraph.followers(authorEmail));
+        }
+        return ownerEmails
+                .flatMapIterable(ownerEmail -> tweets.stream()
+                        .map(tweet -> entry(ownerEmail, tweet))
+                        .collect(Collectors.toList()))
+                .buffer(FETCH_SIZE)
+                .concatMap(timelineRepository::upsertAll)
+                .then();
+    }
+
+    public Mono<Void> backfill(Follow follow) {
+        if (isPullMode() || isPulled(follow.getFollowingEmail())) {
+            return Mono.empty();
+        }
+        return tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(follow.getFollowingEmail())
+                .take(BACKFILL_SIZE)
+                .map(tweet -> entry(follow.getFollowerEmail(), tweet))
+                .buffer(FETCH_SIZE)
+                .concatMap(timelineRepository::upsertAll)
+                .then();
+    }
+
+    /**
+     * ownerEmail 이 보는 최신 트윗 BACKFILL_SIZE 개를 타임라인에 채운다. 조회 시점에 가져오는 셀럽 트윗은 제외한다.
+     */
+    public Mono<Void> backfill(String ownerEmail) {
+        return pull(ownerEmail, Cursor.FIRST, BACKFILL_SIZE)
+                .filter(tweet -> !isPulled(tweet.getAuthorEmail()))
+                .map(tweet -> entry(ownerEmail, tweet))
+                .buffer(FETCH_SIZE)
+                .concatMap(timelineRepository::upsertAll)
+                .then();
+    }
+
+    // 셀럽일 때 fan-out 하지 않은 최근 트윗을 팔로워 타임라인에 쓴다.
+    Mono<Void> backfillDemoted(String authorEmail) {
+        return tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(authorEmail)
+                .take(BACKFILL_SIZE)
+                .collectList()
+                .flatMap(tweets -> fanOut(authorEmail, tweets));
+    }
+
+    // TimelineBackfill 이 끝나면 PUSH/HYBRID 모드에서 타임라인을 읽기 시작한다.
+    public void setBackfilled(boolean backfilled) {
+        this.backfilled = backfilled;
+    }
+
+    public boolean isPullMode() {
+        return appProperties.getTimelineMode() == TimelineMode.PULL || appProperties.getTimelineMode() == TimelineMode.IN_QUERY;
+    }
+
+    public Mono<Void> evict(Follow follow) {
+        return timelineRepository.deleteAllByOwnerEmailAndAuthorEmail(follow.getFollowerEmail(), follow.getFollowingEmail());
+    }
+
+    private Flux<Slot> read(String ownerEmail, Cursor cursor, int limit) {
+        return timelineRepository.findAllByOwnerEmail(ownerEmail, cursor, limit)
+                .buffer(FETCH_SIZE)
+                .concatMap(this::findAllInOrder);
+    }
+
+    private Flux<Slot> hybrid(String ownerEmail, Cursor cursor, int limit) {
+        return followGraph.followings(ownerEmail)
+                .filter(celebrityRegistry::isPulled)
+                .map(authorEmail -> tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(authorEmail, cursor, limit).map(Slot::of))
+                .collect(() -> {
+                    List<Publisher<Slot>> sources = new ArrayList<>();
+                    sources.add(read(ownerEmail, cursor, limit));
+                    return sources;
+                }, List::add)
+                .flatMapMany(sources -> OrderedMerge.merge(Slot.LATEST_FIRST, Long.MAX_VALUE, sources))
+                .distinct(slot -> slot.getCursor().getId())
+                .take(limit);
+    }
+
+    private boolean isPulled(String authorEmail) {
+        return appProperties.getTimelineMode() == TimelineMode.HYBRID && celebrityRegistry.contains(authorEmail);
+    }
+
+    // 작성자마다 쿼리를 하나씩 동시에 열므로, timelineInQueryChunkSize 보다 많이 팔로우하면 $in 청크로 읽는다.
+    private Flux<Tweet> pull(String email, Cursor cursor, int limit) {
+        return authors(email)
+                .collectList()
+                .flatMapMany(authorEmails -> {
+                    if (authorEmails.size() > appProperties.getTimelineInQueryChunkSize()) {
+                        return inQuery(Flux.fromIterable(authorEmails), cursor, limit);
+                    }
+                    return OrderedMerge.merge(LATEST_FIRST, limit, authorEmails.stream()
+                            .map(authorEmail -> tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(authorEmail, cursor, limit))
+                            .collect(Collectors.toList()));
+                });
+    }
+
+    private Flux<Tweet> inQuery(String email, Cursor cursor, int limit) {
+        return inQuery(authors(email), cursor, limit);
+    }
+
+    private Flux<Tweet> inQuery(Flux<String> authors, Cursor cursor, int limit) {
+        return authors
+                .buffer(appProperties.getTimelineInQueryChunkSize())
+                .map(authorEmails -> tweetRepository.findAllByAuthorEmailIn(authorEmails, cursor, limit))
+                .collectList()
+                .flatMapMany(sources -> OrderedMerge.merge(LATEST_FIRST, limit, sources));
+    }
+
+    private Flux<String> authors(String email) {
+        return Flux.just(email).concatWith(followGraph.followings(email));
+    }
+
+    // 지워진 트윗 자리는 tweet 이 null 인 Slot 으로 남긴다.
+    private Flux<Slot> findAllInOrder(List<Timeline> entries) {
+        return tweetRepository.findAllById(entries.stream().map(Timeline::getTweetId).collect(Collectors.toList()))
+                .collectMap(Tweet::getId)
+                .flatMapIterable(tweets -> entries.stream()
+                        .map(entry -> new Slot(Cursor.of(entry.getCreatedDate(), entry.getTweetId()), tweets.get(entry.getTweetId())))
+                        .collect(Collectors.toList()));
+    }
+
+    private Timeline entry(String ownerEmail, Tweet tweet) {
+        return Timeline.builder()
+                .ownerEmail(ownerEmail)
+                .tweetId(tweet.getId())
+                .authorEmail(tweet.getAuthorEmail())
+                .createdDate(tweet.getCreatedDate())
+                .build();
+    }
+
+    // 타임라인 한 칸. 트윗이 지워졌으면 tweet 이 null 이고 cursor 만 남는다.
+    @Getter
+    @RequiredArgsConstructor
+    private static class Slot {
+
+        static final Comparator<Slot> LATEST_FIRST = Comparator.comparing((Slot slot) -> slot.getCursor().getCreatedDate(),
+                        Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(slot -> slot.getCursor().getId())
+                .reversed();
+
+        private final Cursor cursor;
+
+        @Nullable
+        private final Tweet tweet;
+
+        static Slot of(Tweet tweet) {
+            return new Slot(Cursor.of(tweet.getCreatedDate(), tweet.getId()), tweet);
+        }
+    }
+}
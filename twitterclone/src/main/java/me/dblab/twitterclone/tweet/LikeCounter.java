@@ -0,0 +1,135 @@
+package me.dblab.twitterclone.tweet;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.dblab.twitterclone.common.AppProperties;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 트윗별 좋아요 수 변화량을 메모리에 모았다가 주기적으로 한 번의 bulk $inc 로 반영하는 write-behind 카운터.
+ * 인기 트윗 한 건에 $inc 가 몰리는 것을 막는다. 변화량은 tweetId 별로 ConcurrentHashMap.merge 로 더하고 flush 는 remove 로 꺼내므로,
+ * 같은 키에 대한 증가와 꺼내기가 원자적으로 나뉘어 변화량을 잃거나 두 번 반영하지 않는다.
+ * likeFlushInterval 마다, 또는 누적 변화량이 likeFlushThreshold 를 넘으면 flush 하고, 종료 시에도 flush 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCounter {
+
+    private static final int BULK_SIZE = 500;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final AppProperties appProperties;
+
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong unflushed = new AtomicLong();
+    private final DirectProcessor<Long> thresholdReached = DirectProcessor.create();
+    private final FluxSink<Long> thresholdSink = thresholdReached.sink();
+    private Disposable flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Flux.merge(Flux.interval(appProperties.getLikeFlushInterval()), thresholdReached)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.dispose();
+        flush().block(SHUTDOWN_TIMEOUT);
+    }
+
+    public void increment(String tweetId, long delta) {
+        // 합이 0 이 되면 항목을 지워 flush 할 것이 없는 트윗이 쌓이지 않게 한다.
+        pending.merge(tweetId, delta, (current, added) -> current + added == 0 ? null : current + added);
+        if (unflushed.addAndGet(Math.abs(delta)) >= appProperties.getLikeFlushThreshold()) {
+            thresholdSink.next(unflushed.get());
+        }
+    }
+
+    public long pending(String tweetId) {
+        return pending.getOrDefault(tweetId, 0L);
+    }
+
+    public Tweet apply(Tweet tweet) {
+        long delta = pending(tweet.getId());
+        if (delta != 0) {
+            tweet.setCountLike((int) (tweet.getCountLike() + delta));
+        }
+        return tweet;
+    }
+
+    public Mono<Void> flush() {
+        return Mono.fromCallable(this::drain)
+                .flatMapMany(deltas -> Flux.fromIterable(deltas.entrySet()))
+                .buffer(BULK_SIZE)
+                .concatMap(this::write)
+                .then();
+    }
+
+    synchronized Map<String, Long> drain() {
+        unflushed.set(0);
+        Map<String, Long> deltas = new HashMap<>();
+        for (String tweetId : pending.keySet()) {
+            // remove 이전의 증가분은 꺼낸 값에 들어 있고, 이후의 증가분은 새 항목으로 쌓인다.
+            Long delta = pending.remove(tweetId);
+            if (delta != null && delta != 0) {
+                deltas.put(tweetId, delta);
+            }
+        }
+        return deltas;
+    }
+
+    private Mono<Void> write(List<Map.Entry<String, Long>> deltas) {
+        List<UpdateOneModel<Document>> updates = deltas.stream()
+                .map(delta -> new UpdateOneModel<Document>(Filters.eq("_id", toObjectId(delta.getKey())), Updates.inc("countLike", delta.getValue())))
+                .collect(Collectors.toList());
+        return Mono.from(reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Tweet.class))
+                        .bulkWrite(updates, new BulkWriteOptions().ordered(false)))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("failed to flush {} like counters", deltas.size(), e);
+                    restore(deltas, e);
+                    return Mono.empty();
+                });
+    }
+
+    // 반영되지 못한 변화량은 다음 flush 때 다시 시도한다.
+    private void restore(List<Map.Entry<String, Long>> deltas, Throwable error) {
+        if (error instanceof MongoBulkWriteException) {
+            ((MongoBulkWriteException) error).getWriteErrors()
+                    .forEach(writeError -> increment(deltas.get(writeError.getIndex()).getKey(), deltas.get(writeError.getIndex()).getValue()));
+            return;
+        }
+        deltas.forEach(delta -> increment(delta.getKey(), delta.getValue()));
+    }
+
+    private Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
@@ -1,10 +1,13 @@
 package me.dblab.twitterclone.tweet;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import me.dblab.twitterclone.comment.Comment;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.lang.Nullable;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 @Getter @Setter
@@ -21,8 +24,25 @@ public class Tweet {
 
     private String authorEmail;
 
+    @Builder.Default
     private Integer countLike = 0;
+
+    @Builder.Default
+    private Integer countComment = 0;
+
+    // 최신 댓글 recentCommentSize 개 (최신순, 답글 제외)
+    @Nullable
+    private List<Comment> recentComments;
   
     @Nullable
     private Set<String> hashTag;
+
+    @JsonIgnore
+    private List<String> searchTerms;
+
+    public static Tweet from(TweetDto tweetDto) {
+        Tweet tweet = new Tweet();
+        tweet.setContent(tweetDto.getContent());
+        return tweet;
+    }
 }
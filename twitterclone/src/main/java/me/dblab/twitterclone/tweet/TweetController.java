@@ -1,24 +1,77 @@
 package me.dblab.twitterclone.tweet;
 
 import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.common.BatchResult;
+import me.dblab.twitterclone.common.Cursor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.List;
+
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
+import static me.dblab.twitterclone.common.Constants.DEFAULT_PAGE_SIZE;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/tweets")
 public class TweetController {
 
+    private static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(30);
+
     private final TweetService tweetService;
     private final TweetValidator tweetValidator;
 
     @GetMapping
-    public Flux<Tweet> getTweetList() {
-        return tweetService.getTweetList();
+    public Mono<ResponseEntity<List<TweetView>>> getTweetList(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return Cursor.parse(cursor)
+                .flatMap(decoded -> tweetService.getTweetList(decoded, Cursor.limit(limit)))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * 피드를 모으지 않고 읽히는 대로 한 줄에 트윗 하나씩 내려준다.
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<TweetView>>> streamTweetList(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return Cursor.parse(cursor)
+                .map(decoded -> ResponseEntity.ok(tweetService.streamTweetList(decoded, Cursor.limit(limit))))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * SSE 로 피드를 내려준다. 각 이벤트의 id 가 그 트윗 다음부터 읽는 cursor 다.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<TweetView>>>> streamTweetEvents(@RequestParam(required = false) String cursor,
+                                                                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return Cursor.parse(cursor)
+                .map(decoded -> ResponseEntity.ok(tweetService.streamTweetList(decoded, Cursor.limit(limit))
+                        .map(view -> ServerSentEvent.builder(view)
+                                .id(TweetService.cursorOf(view.getTweet()).encode())
+                                .build())))
+                .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * 새 트윗을 SSE 로 밀어준다. 프록시가 연결을 끊지 않도록 주기적으로 빈 comment 를 보낸다.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Tweet>> streamLiveTweets() {
+        Flux<ServerSentEvent<Tweet>> keepAlive = Flux.interval(KEEP_ALIVE_INTERVAL)
+                .map(tick -> ServerSentEvent.<Tweet>builder().comment("").build());
+        return tweetService.streamLiveTweets()
+                .map(tweet -> ServerSentEvent.builder(tweet)
+                        .id(TweetService.cursorOf(tweet).encode())
+                        .build())
+                .mergeWith(keepAlive);
     }
 
     @GetMapping(value = "/{tweetId}")
@@ -34,6 +87,11 @@ public class TweetController {
                 .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
 
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public Flux<BatchResult> saveTweets(@RequestBody Flux<TweetDto> tweetDtos) {
+        return tweetService.saveTweets(tweetDtos, this::validate);
+    }
+
     @PutMapping(value = "/{tweetId}")
     public Mono<ResponseEntity<Tweet>> updateTweet(@PathVariable String tweetId, @RequestBody TweetDto tweetDto) {
         return Mono.just(tweetDto)
@@ -0,0 +1,20 @@
+package me.dblab.twitterclone.tweet;
+
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.common.Cursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.List;
+
+public interface TweetRepositoryCustom {
+    Flux<Tweet> findAllByAuthorEmailOrderByCreatedDateDesc(String email, Cursor cursor, int limit);
+    Flux<Tweet> findAllByAuthorEmailIn(Collection<String> emails, Cursor cursor, int limit);
+    Flux<Tweet> search(List<String> terms, int page, int limit);
+    Flux<Tweet> findAllByHashTag(String tag, Cursor cursor, int limit);
+    Mono<Tweet> updateContent(Tweet tweet);
+    Mono<Boolean> addComment(Comment comment, int recentCommentSize);
+    Mono<Void> updateComment(Comment comment);
+    Mono<Void> removeComment(Comment comment, long removedReplies);
+    Mono<Void> setRecentComments(String tweetId, List<Comment> recentComments);
+}
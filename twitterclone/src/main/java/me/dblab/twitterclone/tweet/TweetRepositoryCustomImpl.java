@@ -0,0 +1,122 @@
+package me.dblab.twitterclone.tweet;
+
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.common.SearchTerms;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TweetRepositoryCustomImpl implements TweetRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Tweet> findAllByAuthorEmailOrderByCreatedDateDesc(String email, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("authorEmail").is(email), "createdDate", "id", limit), Tweet.class);
+    }
+
+    @Override
+    public Flux<Tweet> findAllByAuthorEmailIn(Collection<String> emails, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("authorEmail").in(emails), "createdDate", "id", limit), Tweet.class);
+    }
+
+    @Override
+    public Flux<Tweet> search(List<String> terms, int page, int limit) {
+        if (terms.isEmpty()) {
+            return Flux.empty();
+        }
+        return reactiveMongoTemplate.find(SearchTerms.textQuery(terms, page, limit), Tweet.class);
+    }
+
+    @Override
+    public Flux<Tweet> findAllByHashTag(String tag, Cursor cursor, int limit) {
+        return reactiveMongoTemplate.find(cursor.query(Criteria.where("hashTag").is(tag), "createdDate", "id", limit), Tweet.class);
+    }
+
+    // countLike, countComment, recentComments 는 $inc/$push 로만 바뀌므로 전체 문서를 저장하지 않는다.
+    @Override
+    public Mono<Tweet> updateContent(Tweet tweet) {
+        return reactiveMongoTemplate.findAndModify(byId(tweet.getId()),
+                new Update().set("content", tweet.getContent())
+                        .set("hashTag", tweet.getHashTag())
+                        .set("searchTerms", tweet.getSearchTerms()),
+                FindAndModifyOptions.options().returnNew(true),
+                Tweet.class);
+    }
+
+    /**
+     * countComment 를 올리고, 첫 댓글이면 recentComments 에 넣어 최신 recentCommentSize 개만 남긴다.
+     * 답글이면 recentComments 에 있는 스레드 첫 댓글의 countReply 도 같이 올린다.
+     * 트윗이 없으면 false.
+     */
+    @Override
+    public Mono<Boolean> addComment(Comment comment, int recentCommentSize) {
+        if (comment.getParentCommentId() != null) {
+            return incrementReplies(comment, 1);
+        }
+        Update update = new Update().inc("countComment", 1)
+                .push("recentComments")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .slice(recentCommentSize)
+                .each(comment);
+        return reactiveMongoTemplate.updateFirst(byId(comment.getTweetId()), update, Tweet.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Void> updateComment(Comment comment) {
+        return reactiveMongoTemplate.updateFirst(byRecentComment(comment.getTweetId(), comment.getId()),
+                new Update().set("recentComments.$.content", comment.getContent()),
+                Tweet.class)
+                .then();
+    }
+
+    /**
+     * 첫 댓글을 지우면 함께 지운 답글 수(removedReplies)만큼 countComment 를 더 내린다.
+     * recentComments 에서 빠진 자리는 setRecentComments 로 다시 채운다.
+     */
+    @Override
+    public Mono<Void> removeComment(Comment comment, long removedReplies) {
+        if (comment.getParentCommentId() != null) {
+            return incrementReplies(comment, -1).then();
+        }
+        Update update = new Update().inc("countComment", -(1 + removedReplies))
+                .pull("recentComments", Query.query(Criteria.where("id").is(comment.getId())));
+        return reactiveMongoTemplate.updateFirst(byId(comment.getTweetId()), update, Tweet.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> setRecentComments(String tweetId, List<Comment> recentComments) {
+        return reactiveMongoTemplate.updateFirst(byId(tweetId), new Update().set("recentComments", recentComments), Tweet.class)
+                .then();
+    }
+
+    // 스레드 첫 댓글이 recentComments 에 있으면 한 번의 update 로 countReply 까지 반영하고, 없으면 countComment 만 바꾼다.
+    private Mono<Boolean> incrementReplies(Comment reply, int delta) {
+        Update update = new Update().inc("countComment", delta).inc("recentComments.$.countReply", delta);
+        return reactiveMongoTemplate.updateFirst(byRecentComment(reply.getTweetId(), reply.getParentCommentId()), update, Tweet.class)
+                .flatMap(result -> result.getMatchedCount() > 0
+                        ? Mono.just(true)
+                        : reactiveMongoTemplate.updateFirst(byId(reply.getTweetId()), new Update().inc("countComment", delta), Tweet.class)
+                                .map(fallback -> fallback.getMatchedCount() > 0));
+    }
+
+    private Query byId(String tweetId) {
+        return Query.query(Criteria.where("id").is(tweetId));
+    }
+
+    private Query byRecentComment(String tweetId, String commentId) {
+        return Query.query(Criteria.where("id").is(tweetId).and("recentComments.id").is(commentId));
+    }
+}
@@ -4,17 +4,29 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.dblab.twitterclone.account.Account;
 import me.dblab.twitterclone.account.AccountService;
+import me.dblab.twitterclone.cleanup.CascadeCleaner;
 import me.dblab.twitterclone.common.AppProperties;
-import me.dblab.twitterclone.follow.FollowService;
-import org.modelmapper.ModelMapper;
+import me.dblab.twitterclone.common.BatchResult;
+import me.dblab.twitterclone.common.BulkWriter;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.common.SearchTerms;
+import me.dblab.twitterclone.hashtag.HashtagExtractor;
+import me.dblab.twitterclone.hashtag.TrendingHashtags;
+import me.dblab.twitterclone.timeline.LiveTimeline;
+import me.dblab.twitterclone.timeline.TimelineService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,42 +34,115 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TweetService {
 
+    private static final String INVALID_CONTENT = "invalid content";
+    private static final String WRITE_FAILED = "write failed";
+
     private final TweetRepository tweetRepository;
     private final AccountService accountService;
-    private final ModelMapper modelMapper;
-    private final FollowService followService;
+    private final TimelineService timelineService;
+    private final LiveTimeline liveTimeline;
+    private final CascadeCleaner cascadeCleaner;
+    private final LikeCounter likeCounter;
+    private final TweetViewLoader tweetViewLoader;
+    private final TrendingHashtags trendingHashtags;
+    private final BulkWriter bulkWriter;
     private final AppProperties appProperties;
 
-    public Flux<Tweet> getTweetList() {
-        Mono<Account> currentUser = accountService.findCurrentUser();
-        Flux<Tweet> currentUserTweet = currentUser.flatMapMany(cu -> tweetRepository.findAllByAuthorEmail(cu.getEmail()));
-        Flux<Tweet> followingUserTweet = currentUser.flatMapMany(cu -> followService.findFollowingEmails(cu.getEmail()))
-                .flatMap(follow -> tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(follow.getFollowingEmail()));
-        return currentUserTweet.mergeWith(followingUserTweet);
+    public Mono<ResponseEntity<List<TweetView>>> getTweetList(Cursor cursor, int limit) {
+        return accountService.findCurrentUser()
+                .flatMap(account -> timelineService.getTimelinePage(account, cursor, limit)
+                        .flatMap(page -> tweetViewLoader.load(account.getEmail(), Flux.fromIterable(page.getTweets()).map(likeCounter::apply))
+                                .collectList()
+                                .map(views -> Cursor.page(views, page.getNext()))))
+                .defaultIfEmpty(Cursor.page(Collections.emptyList(), null));
+    }
+
+    /**
+     * 타임라인을 모으지 않고 읽히는 대로 내보낸다. 스트리밍 응답(NDJSON, SSE)에서 쓴다.
+     */
+    public Flux<TweetView> streamTweetList(Cursor cursor, int limit) {
+        return accountService.findCurrentUser()
+                .flatMapMany(account -> tweetViewLoader.load(account.getEmail(), timelineService.getTimeline(account, cursor, limit)
+                        .map(likeCounter::apply)));
+    }
+
+    /**
+     * 접속해 있는 동안 본인과 팔로잉한 계정의 새 트윗을 받는다. 접속 이전 트윗은 피드 조회로 가져온다.
+     */
+    public Flux<Tweet> streamLiveTweets() {
+        return accountService.findCurrentUser()
+                .flatMapMany(account -> liveTimeline.connect(account.getEmail()));
+    }
+
+    public static Cursor cursorOf(Tweet tweet) {
+        return Cursor.of(tweet.getCreatedDate(), tweet.getId());
     }
 
     public Mono<Tweet> getTweet(String id) {
-        return tweetRepository.findById(id);
+        // 아직 flush 되지 않은 좋아요도 반영해 이 노드에서 누른 좋아요가 바로 보이도록 한다.
+        return tweetRepository.findById(id).map(likeCounter::apply);
     }
 
     public Mono<ResponseEntity> saveTweet(TweetDto tweetDto) {
         return accountService.findCurrentUser()
-                .map(cu -> {
-                    Tweet tweet = modelMapper.map(tweetDto, Tweet.class);
-                    validateHashTag(tweet);
-                    tweet.setCreatedDate(LocalDateTime.now());
-                    tweet.setAuthorEmail(cu.getEmail());
-                    return tweet;
-                }).flatMap(tweetRepository::save)
+                .map(cu -> newTweet(tweetDto, cu))
+                .flatMap(tweetRepository::save)
+                .doOnNext(savedTweet -> trendingHashtags.record(savedTweet.getHashTag()))
+                .flatMap(timelineService::fanOut)
                 .map(savedTweet -> new ResponseEntity<>(savedTweet, HttpStatus.CREATED));
     }
 
+    /**
+     * NDJSON 으로 들어온 트윗을 bulkBatchSize 개씩 insertMany 로 저장하고 항목별 결과를 같은 순서로 돌려준다.
+     */
+    public Flux<BatchResult> saveTweets(Flux<TweetDto> tweetDtos, Predicate<TweetDto> validator) {
+        return accountService.findCurrentUser()
+                .flatMapMany(cu -> tweetDtos.index()
+                        .buffer(appProperties.getBulkBatchSize())
+                        .concatMap(batch -> saveTweets(cu, batch, validator)));
+    }
+
+    private Flux<BatchResult> saveTweets(Account author, List<Tuple2<Long, TweetDto>> batch, Predicate<TweetDto> validator) {
+        BatchResult[] results = new BatchResult[batch.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Tweet> tweets = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            TweetDto tweetDto = batch.get(i).getT2();
+            if (!validator.test(tweetDto)) {
+                results[i] = BatchResult.badRequest(batch.get(i).getT1(), INVALID_CONTENT);
+                continue;
+            }
+            positions.add(i);
+            tweets.add(newTweet(tweetDto, author));
+        }
+        return bulkWriter.insert(Tweet.class, tweets)
+                .flatMapMany(ids -> {
+                    List<Tweet> saved = new ArrayList<>();
+                    for (int j = 0; j < ids.size(); j++) {
+                        long index = batch.get(positions.get(j)).getT1();
+                        if (ids.get(j) == null) {
+                            results[positions.get(j)] = BatchResult.badRequest(index, WRITE_FAILED);
+                            continue;
+                        }
+                        Tweet tweet = tweets.get(j);
+                        tweet.setId(ids.get(j));
+                        trendingHashtags.record(tweet.getHashTag());
+                        saved.add(tweet);
+                        results[positions.get(j)] = BatchResult.created(index, tweet.getId());
+                    }
+                    return timelineService.fanOut(author.getEmail(), saved).thenMany(Flux.fromArray(results));
+                });
+    }
+
     public Mono<ResponseEntity<Tweet>> updateTweet(String id, TweetDto tweetDto) {
         return tweetRepository.findById(id)
                 .flatMap(updatedTweet -> {
+                    Set<String> previousHashTags = updatedTweet.getHashTag() == null ? Collections.emptySet() : new HashSet<>(updatedTweet.getHashTag());
                     updatedTweet.setContent(tweetDto.getContent());
                     validateHashTag(updatedTweet);
-                    return tweetRepository.save(updatedTweet);
+                    updatedTweet.setSearchTerms(SearchTerms.of(updatedTweet.getContent()));
+                    return tweetRepository.updateContent(updatedTweet)
+                            .doOnNext(savedTweet -> trendingHashtags.record(addedHashTags(previousHashTags, savedTweet.getHashTag())));
                 }).map(updatedTweet -> ResponseEntity.ok().body(updatedTweet))
                 .switchIfEmpty(Mono.just(ResponseEntity.badRequest().build()));
     }
@@ -66,23 +151,36 @@ public class TweetService {
         return accountService.findCurrentUser()
                 .flatMap(account -> tweetRepository.findById(id).flatMap(tweet -> {
                     if (tweet.getAuthorEmail().equals(account.getEmail())) {
-                        return tweetRepository.deleteById(id).map(i -> ResponseEntity.ok().build());
+                        // 작업을 먼저 저장하므로 여기서 트윗을 지우다 실패해도 정리 작업이 다시 지운다.
+                        return cascadeCleaner.deleteTweet(id)
+                                .then(tweetRepository.deleteById(id))
+                                .then(Mono.just(ResponseEntity.ok().build()));
                     }
                     return Mono.just(ResponseEntity.badRequest().build());
                 }));
     }
 
-    private void validateHashTag(Tweet tweet) {
-        Set<String> set = Arrays.stream(tweet.getContent().split("\\s"))
-                .filter(hashTag -> hashTag.startsWith("#"))
-                .map(hashTag -> hashTag.substring(1))
-                .filter(hashTag -> hashTag.matches(appProperties.getRegexSpecialChar()))
-                .collect(Collectors.toSet());
+    private Tweet newTweet(TweetDto tweetDto, Account author) {
+        Tweet tweet = Tweet.from(tweetDto);
+        validateHashTag(tweet);
+        tweet.setSearchTerms(SearchTerms.of(tweet.getContent()));
+        tweet.setCreatedDate(LocalDateTime.now());
+        tweet.setAuthorEmail(author.getEmail());
+        return tweet;
+    }
 
-        if(set.isEmpty())
-            return;
-        tweet.setHashTag(set);
+    private Set<String> addedHashTags(Set<String> previous, Set<String> current) {
+        if (current == null) {
+            return Collections.emptySet();
+        }
+        return current.stream()
+                .filter(hashTag -> !previous.contains(hashTag))
+                .collect(Collectors.toSet());
+    }
 
+    private void validateHashTag(Tweet tweet) {
+        // 수정으로 태그가 모두 사라진 경우에도 이전 태그가 남지 않도록 항상 덮어쓴다.
+        tweet.setHashTag(HashtagExtractor.extract(tweet.getContent()));
     }
 }
 
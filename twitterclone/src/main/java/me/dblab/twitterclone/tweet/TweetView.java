@@ -0,0 +1,41 @@
+package me.dblab.twitterclone.tweet;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dblab.twitterclone.account.Account;
+import org.springframework.lang.Nullable;
+
+/**
+ * 피드와 검색 결과로 내려주는 트윗. 트윗 필드는 그대로 두고 작성자 정보와 현재 사용자의 좋아요 여부를 붙인다.
+ */
+@Getter
+@AllArgsConstructor
+public class TweetView {
+
+    @JsonUnwrapped
+    private final Tweet tweet;
+
+    // 탈퇴한 계정이면 null
+    @Nullable
+    private final Author author;
+
+    private final boolean liked;
+
+    public static TweetView of(Tweet tweet, @Nullable Account author, boolean liked) {
+        return new TweetView(tweet, author == null ? null : Author.from(author), liked);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Author {
+
+        private final String email;
+        private final String username;
+        private final String nickname;
+
+        static Author from(Account account) {
+            return new Author(account.getEmail(), account.getUsername(), account.getNickname());
+        }
+    }
+}
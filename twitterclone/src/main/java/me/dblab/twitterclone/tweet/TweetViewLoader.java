@@ -0,0 +1,50 @@
+package me.dblab.twitterclone.tweet;
+
+import lombok.RequiredArgsConstructor;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.BatchLoader;
+import me.dblab.twitterclone.favorite.Favorite;
+import me.dblab.twitterclone.favorite.FavoriteRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 트윗 목록에 작성자와 좋아요 여부를 붙여 TweetView 로 바꾼다.
+ * 트윗을 BATCH_SIZE 개(또는 BATCH_WINDOW 동안 모인 만큼)씩 묶어 작성자는 email $in, 좋아요는 tweetId $in 쿼리 한 번으로 읽는다.
+ * 요청마다 BatchLoader 를 새로 만들어 같은 작성자를 다시 읽지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TweetViewLoader {
+
+    private static final int BATCH_SIZE = 100;
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(10);
+
+    private final AccountRepository accountRepository;
+    private final FavoriteRepository favoriteRepository;
+
+    public Flux<TweetView> load(String viewerEmail, Flux<Tweet> tweets) {
+        return Flux.defer(() -> {
+            BatchLoader<String, Account> authors = new BatchLoader<>(accountRepository::findAllByEmailIn, Account::getEmail);
+            BatchLoader<String, Favorite> favorites = new BatchLoader<>(
+                    tweetIds -> favoriteRepository.findAllByAccountEmailAndTweetIdIn(viewerEmail, tweetIds), Favorite::getTweetId);
+            return tweets.bufferTimeout(BATCH_SIZE, BATCH_WINDOW)
+                    .concatMap(batch -> Mono.zip(
+                                    authors.loadMany(batch.stream().map(Tweet::getAuthorEmail).collect(Collectors.toList())),
+                                    favorites.loadMany(batch.stream().map(Tweet::getId).collect(Collectors.toList())))
+                            .flatMapIterable(loaded -> views(batch, loaded.getT1(), loaded.getT2())));
+        });
+    }
+
+    private List<TweetView> views(List<Tweet> tweets, Map<String, Account> authors, Map<String, Favorite> favorites) {
+        return tweets.stream()
+                .map(tweet -> TweetView.of(tweet, authors.get(tweet.getAuthorEmail()), favorites.containsKey(tweet.getId())))
+                .collect(Collectors.toList());
+    }
+}
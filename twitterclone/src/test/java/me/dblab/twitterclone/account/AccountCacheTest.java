@@ -0,0 +1,75 @@
+package me.dblab.twitterclone.account;
+
+import me.dblab.twitterclone.common.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class AccountCacheTest {
+
+    private static final String EMAIL = "test@gmail.com";
+
+    private AccountCache accountCache;
+    private AtomicInteger lookups;
+
+    @BeforeEach
+    public void setUp() {
+        accountCache = new AccountCache(new AppProperties());
+        lookups = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("캐시된 계정은 다시 조회하지 않고, invalidate 후에는 다시 조회한다")
+    public void cacheAndInvalidate() {
+        StepVerifier.create(accountCache.get(EMAIL, this::findByEmail).then(Mono.defer(() -> accountCache.get(EMAIL, this::findByEmail))))
+                .assertNext(account -> then(account.getEmail()).isEqualTo(EMAIL))
+                .verifyComplete();
+        then(lookups.get()).isEqualTo(1);
+
+        accountCache.invalidate(EMAIL);
+
+        StepVerifier.create(accountCache.get(EMAIL, this::findByEmail))
+                .expectNextCount(1)
+                .verifyComplete();
+        then(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("없는 계정은 캐시하지 않는다")
+    public void missingAccountIsNotCached() {
+        StepVerifier.create(accountCache.get(EMAIL, email -> {
+                    lookups.incrementAndGet();
+                    return Mono.empty();
+                }))
+                .verifyComplete();
+
+        StepVerifier.create(accountCache.get(EMAIL, this::findByEmail))
+                .expectNextCount(1)
+                .verifyComplete();
+        then(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("한 요청 안에서는 현재 사용자를 한 번만 조회한다")
+    public void currentAccountIsMemoizedPerRequest() {
+        CurrentAccount currentAccount = new CurrentAccount();
+
+        StepVerifier.create(Flux.range(0, 5).flatMap(i -> currentAccount.get(() -> findByEmail(EMAIL))))
+                .expectNextCount(5)
+                .verifyComplete();
+        then(lookups.get()).isEqualTo(1);
+    }
+
+    private Mono<Account> findByEmail(String email) {
+        return Mono.fromCallable(() -> {
+            lookups.incrementAndGet();
+            return Account.builder().email(email).build();
+        });
+    }
+}
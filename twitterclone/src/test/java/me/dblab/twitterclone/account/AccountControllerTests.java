@@ -6,15 +6,16 @@ import me.dblab.twitterclone.config.jwt.TokenProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -33,9 +34,6 @@ public class AccountControllerTests extends BaseControllerTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
-    @Autowired
-    ModelMapper modelMapper;
-
     private final String accountUrl = "/api/users";
     private final String BEARER = "Bearer ";
     private String jwt;
@@ -268,6 +266,30 @@ public class AccountControllerTests extends BaseControllerTest {
                 .isBadRequest();
     }
 
+    @Test
+    @DisplayName("같은 이메일로 로그인을 너무 많이 시도하면 429")
+    void login_test_too_many_attempts_429() {
+        accountDto.setEmail("ratelimit@gmail.com");
+        IntStream.range(0, appProperties.getLoginAttemptsPerEmail()).forEach(i ->
+                webTestClient.post()
+                        .uri(accountUrl + "/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Mono.just(accountDto), AccountDto.class)
+                        .exchange()
+                        .expectStatus()
+                        .isBadRequest());
+
+        webTestClient.post()
+                .uri(accountUrl + "/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(accountDto), AccountDto.class)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader()
+                .exists(HttpHeaders.RETRY_AFTER);
+    }
+
     private AccountDto updateAccountDto() {
         return AccountDto.builder()
                 .username("modified" + appProperties.getTestUsername())
@@ -0,0 +1,91 @@
+package me.dblab.twitterclone.account;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.dblab.twitterclone.common.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile String encodingThread;
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setPasswordHashThreads(1);
+        appProperties.setPasswordHashQueueSize(1);
+        passwordHasher = new PasswordHasher(new BlockingPasswordEncoder(), appProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordHasher.stop();
+    }
+
+    @Test
+    @DisplayName("해시는 이벤트 루프가 아닌 전용 스케줄러에서 실행된다")
+    public void runsOnDedicatedScheduler() {
+        release.countDown();
+
+        StepVerifier.create(passwordHasher.encode("password"))
+                .expectNext("{noop}password")
+                .verifyComplete();
+        then(encodingThread).startsWith("password-hasher");
+    }
+
+    @Test
+    @DisplayName("실행 중 + 대기 작업이 가득 차면 기다리지 않고 바로 거절한다")
+    public void rejectWhenSaturated() {
+        StepVerifier first = StepVerifier.create(passwordHasher.encode("first")).expectNext("{noop}first").expectComplete().verifyLater();
+        StepVerifier second = StepVerifier.create(passwordHasher.matches("second", "{noop}second")).expectNext(true).expectComplete().verifyLater();
+
+        StepVerifier.create(passwordHasher.encode("third"))
+                .expectError(PasswordHasherBusyException.class)
+                .verify(Duration.ofSeconds(1));
+
+        release.countDown();
+        first.verify(Duration.ofSeconds(5));
+        second.verify(Duration.ofSeconds(5));
+
+        // 앞선 작업이 끝나면 다시 받는다.
+        StepVerifier.create(passwordHasher.encode("fourth"))
+                .expectNext("{noop}fourth")
+                .verifyComplete();
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            encodingThread = Thread.currentThread().getName();
+            return "{noop}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("{noop}" + rawPassword);
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
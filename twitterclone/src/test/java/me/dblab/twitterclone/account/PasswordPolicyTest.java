@@ -0,0 +1,41 @@
+package me.dblab.twitterclone.account;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class PasswordPolicyTest {
+
+    private static final String REGEX_PASSWORD = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[$@$!%*?&])[A-Za-z\\d$@$!%*?&]{8,}";
+
+    @Test
+    @DisplayName("기존 비밀번호 정규식과 같은 결과")
+    public void sameAsRegex() {
+        String[] passwords = {
+                "Didrltjr3!@",
+                "Aa1!aaaa",
+                "Aa1!aaa",
+                "aa1!aaaa",
+                "AA1!AAAA",
+                "Aa!!aaaa",
+                "Aa11aaaa",
+                "Aa1!aaa a",
+                "Aa1!aaaa#",
+                "Aa1!한글aaaa",
+                "",
+        };
+        for (String password : passwords) {
+            then(PasswordPolicy.isValid(password))
+                    .as(password)
+                    .isEqualTo(Pattern.matches(REGEX_PASSWORD, password));
+        }
+    }
+
+    @Test
+    @DisplayName("null 은 유효하지 않다")
+    public void nullPassword() {
+        then(PasswordPolicy.isValid(null)).isFalse();
+    }
+}
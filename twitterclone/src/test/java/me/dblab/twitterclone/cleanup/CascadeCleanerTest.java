@@ -0,0 +1,161 @@
+package me.dblab.twitterclone.cleanup;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.favorite.Favorite;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.timeline.Timeline;
+import me.dblab.twitterclone.tweet.LikeCounter;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class CascadeCleanerTest {
+
+    private static final List<String> EMAILS = Arrays.asList("author@gmail.com", "reader@gmail.com", "other@gmail.com");
+
+    @Autowired
+    CascadeCleaner cascadeCleaner;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    LikeCounter likeCounter;
+
+    @BeforeEach
+    public void setUp() {
+        Flux.just(Tweet.class, Comment.class, Favorite.class, Timeline.class, Follow.class, CleanupJob.class)
+                .concatMap(type -> reactiveMongoTemplate.remove(new Query(), type))
+                .then(reactiveMongoTemplate.remove(Query.query(Criteria.where("email").in(EMAILS)), Account.class))
+                .block();
+        likeCounter.flush().block();
+    }
+
+    @Test
+    @DisplayName("삭제된 트윗의 댓글, 좋아요, 타임라인 항목을 지운다")
+    public void deleteTweet() {
+        Tweet tweet = reactiveMongoTemplate.insert(tweet("author@gmail.com")).block();
+        Tweet other = reactiveMongoTemplate.insert(tweet("author@gmail.com")).block();
+        reactiveMongoTemplate.insertAll(children(tweet, "reader@gmail.com"))
+                .thenMany(reactiveMongoTemplate.insertAll(children(other, "reader@gmail.com")))
+                .blockLast();
+
+        cascadeCleaner.deleteTweet(tweet.getId()).then(cascadeCleaner.drain()).block();
+
+        StepVerifier.create(reactiveMongoTemplate.find(new Query(), Tweet.class))
+                .expectNextMatches(remaining -> remaining.getId().equals(other.getId()))
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(new Query(), Comment.class))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(new Query(), Favorite.class))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(new Query(), Timeline.class))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(new Query(), CleanupJob.class))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("삭제된 계정의 트윗과 팔로우, 다른 트윗에 남긴 댓글과 좋아요를 지운다")
+    public void deleteAccount() {
+        Account account = reactiveMongoTemplate.insert(Account.builder().accountNo(1L).email("author@gmail.com").build()).block();
+        Tweet tweet = reactiveMongoTemplate.insert(tweet("author@gmail.com")).block();
+        Tweet other = reactiveMongoTemplate.insert(tweet("reader@gmail.com")).block();
+        reactiveMongoTemplate.insertAll(children(tweet, "reader@gmail.com"))
+                .thenMany(reactiveMongoTemplate.insertAll(children(other, "author@gmail.com")))
+                .then(reactiveMongoTemplate.insert(Follow.builder().followerNo(2L).followingNo(1L).build()))
+                .then(reactiveMongoTemplate.insert(Follow.builder().followerNo(2L).followingNo(3L).build()))
+                .block();
+
+        cascadeCleaner.deleteAccount(account).then(cascadeCleaner.drain()).block();
+
+        StepVerifier.create(reactiveMongoTemplate.find(new Query(), Tweet.class))
+                .expectNextMatches(remaining -> remaining.getId().equals(other.getId()))
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(new Query(), Comment.class))
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(new Query(), Favorite.class))
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.find(new Query(), Follow.class))
+                .expectNextMatches(follow -> follow.getFollowingNo() == 3L)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.count(Query.query(Criteria.where("id").is(account.getId())), Account.class))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("삭제된 계정이 남긴 좋아요 수, 팔로우 수, 댓글 수를 되돌린다")
+    public void revertCounters() {
+        Account account = reactiveMongoTemplate.insert(Account.builder().accountNo(1L).email("author@gmail.com")
+                .followerCount(1L).followingCount(1L).build()).block();
+        Account follower = reactiveMongoTemplate.insert(Account.builder().accountNo(2L).email("reader@gmail.com")
+                .followerCount(0L).followingCount(2L).build()).block();
+        Account following = reactiveMongoTemplate.insert(Account.builder().accountNo(3L).email("other@gmail.com")
+                .followerCount(2L).followingCount(0L).build()).block();
+        Tweet other = tweet("reader@gmail.com");
+        other.setCountComment(1);
+        reactiveMongoTemplate.insert(other)
+                .thenMany(reactiveMongoTemplate.insertAll(children(other, "author@gmail.com")))
+                .then(reactiveMongoTemplate.insert(Follow.builder().followerNo(2L).followingNo(1L).build()))
+                .then(reactiveMongoTemplate.insert(Follow.builder().followerNo(2L).followingNo(3L).build()))
+                .then(reactiveMongoTemplate.insert(Follow.builder().followerNo(1L).followingNo(3L).build()))
+                .block();
+
+        cascadeCleaner.deleteAccount(account).then(cascadeCleaner.drain()).block();
+
+        // 좋아요 수는 LikeCounter 가 flush 한 뒤에 반영된다.
+        StepVerifier.create(Mono.defer(() -> likeCounter.flush().then(reactiveMongoTemplate.findById(other.getId(), Tweet.class)))
+                        .filter(remaining -> remaining.getCountLike() == -1)
+                        .repeatWhenEmpty(10, repeat -> repeat.delayElements(Duration.ofMillis(200))))
+                .assertNext(remaining -> then(remaining.getCountComment()).isEqualTo(0))
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.findById(follower.getId(), Account.class))
+                .assertNext(remaining -> then(remaining.getFollowingCount()).isEqualTo(1L))
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.findById(following.getId(), Account.class))
+                .assertNext(remaining -> then(remaining.getFollowerCount()).isEqualTo(1L))
+                .verifyComplete();
+    }
+
+    private Tweet tweet(String authorEmail) {
+        Tweet tweet = new Tweet();
+        tweet.setAuthorEmail(authorEmail);
+        tweet.setContent("content");
+        tweet.setCreatedDate(LocalDateTime.now());
+        return tweet;
+    }
+
+    private List<Object> children(Tweet tweet, String email) {
+        return Arrays.asList(
+                Comment.builder().tweetId(tweet.getId()).authorEmail(email).content("comment").build(),
+                Favorite.builder().tweetId(tweet.getId()).accountEmail(email).build(),
+                Timeline.builder().tweetId(tweet.getId()).ownerEmail(email).authorEmail(tweet.getAuthorEmail()).createdDate(tweet.getCreatedDate()).build());
+    }
+}
@@ -18,14 +18,17 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.IntStream;
 
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
 import static org.assertj.core.api.BDDAssertions.then;
 
 class CommentControllerTest extends BaseControllerTest {
@@ -339,6 +342,160 @@ class CommentControllerTest extends BaseControllerTest {
                 .jsonPath("[*].content").exists();
     }
 
+    @Test
+    @DisplayName("댓글 목록을 cursor 와 limit 으로 나눠 읽고, 잘못된 cursor 는 Bad Request")
+    void pageCommentList() {
+        Account account = accountRepository.findByEmail(appProperties.getTestEmail()).block();
+        Tweet tweet = tweetRepository.findAllByAuthorEmail(account.getEmail()).blockFirst();
+        IntStream.rangeClosed(1, 3).forEach(index -> postComment(account, tweet.getId(), new CommentDto("댓글" + index, null)));
+
+        EntityExchangeResult<List<Comment>> first = getCommentList(account, tweet.getId(), 2, null);
+        then(first.getResponseBody()).extracting(Comment::getContent).containsExactly("댓글3", "댓글2");
+        String next = first.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER);
+        then(next).isNotNull();
+
+        EntityExchangeResult<List<Comment>> second = getCommentList(account, tweet.getId(), 2, next);
+        then(second.getResponseBody()).extracting(Comment::getContent).containsExactly("댓글1");
+        then(second.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER)).isNull();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(commenturl + tweet.getId()).queryParam("cursor", "invalid!").build())
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    @DisplayName("댓글 수와 최신 댓글이 트윗에 함께 저장된다")
+    void countAndRecentComments() {
+        Account account = accountRepository.findByEmail(appProperties.getTestEmail()).block();
+        Tweet tweet = tweetRepository.findAllByAuthorEmail(account.getEmail()).blockFirst();
+
+        IntStream.rangeClosed(1, appProperties.getRecentCommentSize() + 1)
+                .forEach(index -> postComment(account, tweet.getId(), CommentDto.builder().content("댓글" + index).build()));
+
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(saved -> {
+                    then(saved.getCountComment()).isEqualTo(appProperties.getRecentCommentSize() + 1);
+                    then(saved.getRecentComments()).hasSize(appProperties.getRecentCommentSize());
+                    then(saved.getRecentComments().get(0).getContent()).isEqualTo("댓글" + (appProperties.getRecentCommentSize() + 1));
+                }).verifyComplete();
+
+        // 최신 댓글을 지우면 다음 댓글로 다시 채운다.
+        Comment latest = tweetRepository.findById(tweet.getId()).block().getRecentComments().get(0);
+        webTestClient.delete()
+                .uri(commenturl + latest.getId())
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(saved -> {
+                    then(saved.getCountComment()).isEqualTo(appProperties.getRecentCommentSize());
+                    then(saved.getRecentComments()).hasSize(appProperties.getRecentCommentSize())
+                            .extracting(Comment::getId)
+                            .doesNotContain(latest.getId());
+                }).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("답글은 스레드 첫 댓글에 붙고, 첫 댓글을 지우면 답글도 지워진다")
+    void replyThread() {
+        Account account = accountRepository.findByEmail(appProperties.getTestEmail()).block();
+        Tweet tweet = tweetRepository.findAllByAuthorEmail(account.getEmail()).blockFirst();
+
+        postComment(account, tweet.getId(), CommentDto.builder().content("댓글").build());
+        Comment root = commentRepository.findAllByTweetId(tweet.getId()).blockFirst();
+        postComment(account, tweet.getId(), CommentDto.builder().content("답글").parentCommentId(root.getId()).build());
+        Comment reply = commentRepository.findAll().filter(comment -> comment.getParentCommentId() != null).blockFirst();
+        postComment(account, tweet.getId(), CommentDto.builder().content("답글의 답글").parentCommentId(reply.getId()).build());
+
+        webTestClient.get()
+                .uri(commenturl + root.getId() + "/replies")
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("[0].content").isEqualTo("답글의 답글");
+        webTestClient.get()
+                .uri(commenturl + tweet.getId())
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1);
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(saved -> {
+                    then(saved.getCountComment()).isEqualTo(3);
+                    then(saved.getRecentComments().get(0).getCountReply()).isEqualTo(2);
+                }).verifyComplete();
+
+        webTestClient.delete()
+                .uri(commenturl + root.getId())
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        StepVerifier.create(commentRepository.count())
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(saved -> {
+                    then(saved.getCountComment()).isZero();
+                    then(saved.getRecentComments()).isEmpty();
+                }).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("다른 트윗의 댓글에 답글을 달면 Bad Request")
+    void reply_to_other_tweet_400_bad_request() {
+        Account account = accountRepository.findByEmail(appProperties.getTestEmail()).block();
+        Tweet tweet = tweetRepository.findAllByAuthorEmail(account.getEmail()).blockFirst();
+        postComment(account, tweet.getId(), CommentDto.builder().content("댓글").build());
+        Comment root = commentRepository.findAllByTweetId(tweet.getId()).blockFirst();
+
+        webTestClient.post()
+                .uri(commenturl + UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .body(Mono.just(CommentDto.builder().content("답글").parentCommentId(root.getId()).build()), CommentDto.class)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    private void postComment(Account account, String tweetId, CommentDto commentDto) {
+        webTestClient.post()
+                .uri(commenturl + tweetId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .body(Mono.just(commentDto), CommentDto.class)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+    }
+
+    private EntityExchangeResult<List<Comment>> getCommentList(Account account, String tweetId, int limit, String cursor) {
+        return webTestClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path(commenturl + tweetId).queryParam("limit", limit);
+                    if (cursor != null) {
+                        uriBuilder.queryParam("cursor", cursor);
+                    }
+                    return uriBuilder.build();
+                })
+                .header(HttpHeaders.AUTHORIZATION, createJwt(account))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Comment.class)
+                .returnResult();
+    }
+
     String createJwt(Account account) {
         return "Bearer " + tokenProvider.generateToken(account);
     }
@@ -0,0 +1,49 @@
+package me.dblab.twitterclone.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class BatchLoaderTest {
+
+    private final List<Set<String>> batches = new ArrayList<>();
+    private final BatchLoader<String, String> loader = new BatchLoader<>(keys -> {
+        batches.add(keys);
+        return Flux.fromIterable(keys).filter(key -> !key.startsWith("missing"));
+    }, value -> value);
+
+    @Test
+    @DisplayName("중복 키는 한 번의 batch 로 한 번만 읽는다")
+    public void dedupWithinBatch() {
+        StepVerifier.create(loader.loadMany(Arrays.asList("a", "b", "a")))
+                .assertNext(found -> then(found).containsOnlyKeys("a", "b"))
+                .verifyComplete();
+
+        then(batches).hasSize(1);
+        then(batches.get(0)).containsExactly("a", "b");
+    }
+
+    @Test
+    @DisplayName("이미 읽은 키와 결과가 없던 키는 다시 읽지 않는다")
+    public void rememberLoadedAndMissing() {
+        loader.loadMany(Arrays.asList("a", "missing")).block();
+
+        StepVerifier.create(loader.loadMany(Arrays.asList("a", "missing", "c")))
+                .assertNext(found -> then(found).containsOnlyKeys("a", "c"))
+                .verifyComplete();
+        StepVerifier.create(loader.loadMany(Collections.singletonList("c")))
+                .assertNext(found -> then(found).containsOnlyKeys("c"))
+                .verifyComplete();
+
+        then(batches).hasSize(2);
+        then(batches.get(1)).containsExactly("c");
+    }
+}
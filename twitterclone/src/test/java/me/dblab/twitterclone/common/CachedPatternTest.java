@@ -0,0 +1,27 @@
+package me.dblab.twitterclone.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class CachedPatternTest {
+
+    @Test
+    @DisplayName("정규식이 그대로면 같은 Pattern 을 재사용하고, 바뀌면 다시 컴파일한다")
+    public void recompileOnChange() {
+        AtomicReference<String> regex = new AtomicReference<>("^[a-z]+$");
+        CachedPattern cachedPattern = new CachedPattern(regex::get);
+
+        Pattern first = cachedPattern.get();
+        then(cachedPattern.get()).isSameAs(first);
+        then(cachedPattern.matches("abc")).isTrue();
+        then(cachedPattern.matches("ABC")).isFalse();
+
+        regex.set("^[A-Z]+$");
+        then(cachedPattern.get()).isNotSameAs(first);
+        then(cachedPattern.matches("ABC")).isTrue();
+    }
+}
@@ -0,0 +1,56 @@
+package me.dblab.twitterclone.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+public class CursorTest {
+
+    @Test
+    @DisplayName("인코딩한 커서를 다시 파싱")
+    public void encodeAndParse() {
+        LocalDateTime createdDate = LocalDateTime.of(2019, 11, 25, 21, 54, 3);
+        Cursor cursor = Cursor.of(createdDate, "5ddbc3f1e4b0a1a2b3c4d5e6");
+
+        StepVerifier.create(Cursor.parse(cursor.encode()))
+                .assertNext(parsed -> {
+                    then(parsed.getCreatedDate()).isEqualTo(createdDate);
+                    then(parsed.getId()).isEqualTo("5ddbc3f1e4b0a1a2b3c4d5e6");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("커서가 없으면 첫 페이지, 잘못된 커서는 empty")
+    public void parseFirstAndInvalid() {
+        StepVerifier.create(Cursor.parse(null))
+                .assertNext(parsed -> then(parsed.isFirst()).isTrue())
+                .verifyComplete();
+
+        StepVerifier.create(Cursor.parse("not-a-cursor!"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("limit 만큼 채워진 페이지에만 다음 커서 헤더를 붙인다")
+    public void page() {
+        List<String> ids = Arrays.asList("a", "b");
+
+        ResponseEntity<List<String>> full = Cursor.page(ids, 2, id -> Cursor.of(null, id));
+        ResponseEntity<List<String>> last = Cursor.page(ids, 3, id -> Cursor.of(null, id));
+
+        then(full.getHeaders().getFirst(NEXT_CURSOR_HEADER)).isEqualTo(Cursor.of(null, "b").encode());
+        then(last.getHeaders().containsKey(NEXT_CURSOR_HEADER)).isFalse();
+        then(Cursor.limit(1000)).isEqualTo(Constants.MAX_PAGE_SIZE);
+    }
+}
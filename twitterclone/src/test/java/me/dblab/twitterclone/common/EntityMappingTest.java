@@ -0,0 +1,77 @@
+package me.dblab.twitterclone.common;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDto;
+import me.dblab.twitterclone.account.Role;
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.comment.CommentDto;
+import me.dblab.twitterclone.explore.Explore;
+import me.dblab.twitterclone.explore.ExploreDto;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * 정적 매퍼가 이전에 쓰던 ModelMapper 와 같은 엔티티를 만드는지 확인한다.
+ */
+public class EntityMappingTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    @DisplayName("TweetDto -> Tweet")
+    public void tweet() {
+        TweetDto tweetDto = new TweetDto("경성대학교 #졸업");
+
+        then(Tweet.from(tweetDto)).usingRecursiveComparison().isEqualTo(modelMapper.map(tweetDto, Tweet.class));
+    }
+
+    @Test
+    @DisplayName("CommentDto -> Comment")
+    public void comment() {
+        CommentDto commentDto = new CommentDto("댓글", null);
+
+        then(Comment.from(commentDto)).usingRecursiveComparison().isEqualTo(modelMapper.map(commentDto, Comment.class));
+    }
+
+    @Test
+    @DisplayName("ExploreDto -> Explore")
+    public void explore() {
+        ExploreDto exploreDto = new ExploreDto("경성대학교");
+
+        then(Explore.from(exploreDto)).usingRecursiveComparison().isEqualTo(modelMapper.map(exploreDto, Explore.class));
+    }
+
+    @Test
+    @DisplayName("AccountDto -> Account")
+    public void account() {
+        AccountDto accountDto = AccountDto.builder()
+                .username("testUsername")
+                .nickname("testNickname")
+                .password("{bcrypt}encoded")
+                .email("test@gmail.com")
+                .birthDate(new Date(0))
+                .createdDate(LocalDateTime.of(2019, 11, 25, 21, 54))
+                .roles(Collections.singletonList(Role.USER))
+                .build();
+
+        Account account = Account.from(accountDto);
+        then(account).usingRecursiveComparison().isEqualTo(modelMapper.map(accountDto, Account.class));
+        then(account.getRoles()).isNotSameAs(accountDto.getRoles());
+    }
+
+    @Test
+    @DisplayName("비어 있는 AccountDto")
+    public void emptyAccount() {
+        AccountDto accountDto = new AccountDto();
+
+        then(Account.from(accountDto)).usingRecursiveComparison().isEqualTo(modelMapper.map(accountDto, Account.class));
+    }
+}
@@ -0,0 +1,87 @@
+package me.dblab.twitterclone.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+public class OrderedMergeTest {
+
+    private final Comparator<Integer> descending = Comparator.<Integer>naturalOrder().reversed();
+
+    @Test
+    @DisplayName("정렬된 소스들을 전체 순서대로 병합")
+    public void mergeInOrder() {
+        Flux<Integer> merged = OrderedMerge.merge(descending, Long.MAX_VALUE, Arrays.asList(
+                Flux.just(9, 6, 3),
+                Flux.just(8, 5, 2),
+                Flux.<Integer>empty(),
+                Flux.just(7, 4, 1)));
+
+        StepVerifier.create(merged)
+                .expectNext(9, 8, 7, 6, 5, 4, 3, 2, 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("limit 개를 내보내면 나머지 소스는 cancel")
+    public void stopAtLimit() {
+        AtomicLong requested = new AtomicLong();
+        Flux<Integer> history = Flux.range(0, 10_000)
+                .map(i -> 10_000 - i)
+                .doOnRequest(n -> requested.addAndGet(n));
+
+        StepVerifier.create(OrderedMerge.merge(descending, 3, Arrays.asList(history, Flux.just(9_999, 1))))
+                .expectNext(10_000, 9_999, 9_999)
+                .verifyComplete();
+
+        then(requested.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("downstream 요청만큼만 내보낸다")
+    public void honourBackpressure() {
+        StepVerifier.create(OrderedMerge.merge(descending, Long.MAX_VALUE, Arrays.asList(Flux.just(4, 2), Flux.just(3, 1))), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(2)
+                .expectNext(4, 3)
+                .thenRequest(2)
+                .expectNext(2, 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("head 가 준비되지 않은 소스가 있으면 기다린다")
+    public void waitForSlowSource() {
+        TestPublisher<Integer> slow = TestPublisher.create();
+
+        StepVerifier.create(OrderedMerge.merge(descending, Long.MAX_VALUE, Arrays.asList(Flux.just(5, 1), slow)))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(10))
+                .then(() -> slow.next(3))
+                .expectNext(5)
+                .then(slow::complete)
+                .expectNext(3, 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("한 소스의 에러는 전체로 전파")
+    public void propagateError() {
+        StepVerifier.create(OrderedMerge.merge(descending, Long.MAX_VALUE, Arrays.asList(
+                Flux.just(2, 1),
+                Flux.<Integer>error(new IllegalStateException("boom")))))
+                .verifyErrorMessage("boom");
+    }
+}
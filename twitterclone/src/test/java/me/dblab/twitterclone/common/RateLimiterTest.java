@@ -0,0 +1,76 @@
+package me.dblab.twitterclone.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong now;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        // nanoTime 처럼 음수에서 시작해도 동작해야 한다.
+        now = new AtomicLong(-100 * SECOND);
+        rateLimiter = new RateLimiter(5, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    @DisplayName("permits 번까지 연속으로 허용하고, 그 뒤로는 남은 시간을 알려준다")
+    public void burst() {
+        IntStream.range(0, 5).forEach(i -> then(rateLimiter.tryAcquire("a")).isZero());
+
+        then(rateLimiter.tryAcquire("a")).isEqualTo(2 * SECOND);
+        then(rateLimiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    @DisplayName("period / permits 마다 한 번씩 다시 허용된다")
+    public void refill() {
+        IntStream.range(0, 5).forEach(i -> rateLimiter.tryAcquire("a"));
+
+        now.addAndGet(2 * SECOND);
+        then(rateLimiter.tryAcquire("a")).isZero();
+        then(rateLimiter.tryAcquire("a")).isEqualTo(2 * SECOND);
+
+        now.addAndGet(10 * SECOND);
+        IntStream.range(0, 5).forEach(i -> then(rateLimiter.tryAcquire("a")).isZero());
+        then(rateLimiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    @DisplayName("버킷이 다시 가득 찬 키만 지운다")
+    public void evictIdle() {
+        rateLimiter.tryAcquire("a");
+        IntStream.range(0, 5).forEach(i -> rateLimiter.tryAcquire("b"));
+
+        now.addAndGet(2 * SECOND);
+        rateLimiter.evictIdle();
+        then(rateLimiter.size()).isEqualTo(1);
+
+        now.addAndGet(8 * SECOND);
+        rateLimiter.evictIdle();
+        then(rateLimiter.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("동시에 시도해도 permits 번보다 많이 허용하지 않는다")
+    public void concurrent() {
+        AtomicInteger allowed = new AtomicInteger();
+        IntStream.range(0, 10000).parallel()
+                .filter(i -> rateLimiter.tryAcquire("a") == 0)
+                .forEach(i -> allowed.incrementAndGet());
+
+        then(allowed.get()).isEqualTo(5);
+    }
+}
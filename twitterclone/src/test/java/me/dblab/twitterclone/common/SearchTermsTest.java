@@ -0,0 +1,35 @@
+package me.dblab.twitterclone.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class SearchTermsTest {
+
+    @Test
+    @DisplayName("단어별 접두어를 소문자로 만든다")
+    public void edgeNgrams() {
+        then(SearchTerms.of("Hello, 경성대학교!"))
+                .containsExactly("he", "hel", "hell", "hello", "경성", "경성대", "경성대학", "경성대학교");
+    }
+
+    @Test
+    @DisplayName("여러 필드의 중복된 접두어는 한 번만 저장한다")
+    public void distinctAcrossFields() {
+        then(SearchTerms.of("test", "tester")).containsExactly("te", "tes", "test", "teste", "tester");
+    }
+
+    @Test
+    @DisplayName("한 글자 단어는 그대로 저장하고, null 은 무시한다")
+    public void shortWordsAndNull() {
+        then(SearchTerms.of("a 게시물1", null)).containsExactly("a", "게시", "게시물", "게시물1");
+    }
+
+    @Test
+    @DisplayName("검색어는 저장된 접두어의 최대 길이로 자른다")
+    public void queryIsTruncated() {
+        then(SearchTerms.query("Abcdefghijklmnopqrstuvwxyz 게시")).containsExactly("abcdefghijklmnopqrst", "게시");
+        then(SearchTerms.of("abcdefghijklmnopqrstuvwxyz")).contains("abcdefghijklmnopqrst").doesNotContain("abcdefghijklmnopqrstu");
+    }
+}
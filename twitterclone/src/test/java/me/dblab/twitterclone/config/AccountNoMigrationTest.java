@@ -0,0 +1,71 @@
+package me.dblab.twitterclone.config;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.follow.FollowRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class AccountNoMigrationTest {
+
+    @Autowired
+    AccountNoMigration accountNoMigration;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    FollowRepository followRepository;
+
+    @BeforeEach
+    public void setUp() {
+        accountRepository.deleteAll().then(followRepository.deleteAll()).block();
+    }
+
+    @Test
+    @DisplayName("기존 계정에 accountNo 를 발급하고 email 로 저장된 Follow 를 번호로 옮긴다")
+    public void migrateLegacyFollows() {
+        accountRepository.save(Account.builder().email("follower@gmail.com").build())
+                .then(accountRepository.save(Account.builder().email("following@gmail.com").build()))
+                .block();
+        String collection = reactiveMongoTemplate.getCollectionName(Follow.class);
+        reactiveMongoTemplate.insert(new Document("followerEmail", "follower@gmail.com").append("followingEmail", "following@gmail.com"), collection)
+                .then(reactiveMongoTemplate.insert(new Document("followerEmail", "follower@gmail.com").append("followingEmail", "deleted@gmail.com"), collection))
+                .block();
+
+        accountNoMigration.migrate().block();
+
+        Account follower = accountRepository.findByEmail("follower@gmail.com").block();
+        Account following = accountRepository.findByEmail("following@gmail.com").block();
+        then(follower.getAccountNo()).isNotNull();
+        then(following.getAccountNo()).isNotNull().isNotEqualTo(follower.getAccountNo());
+
+        // 계정이 없는 Follow 는 지워진다.
+        StepVerifier.create(followRepository.findAll())
+                .assertNext(follow -> {
+                    then(follow.getFollowerNo()).isEqualTo(follower.getAccountNo());
+                    then(follow.getFollowingNo()).isEqualTo(following.getAccountNo());
+                })
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.find(new Query(), Document.class, collection))
+                .assertNext(document -> then(document).doesNotContainKeys("followerEmail", "followingEmail"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,178 @@
+package me.dblab.twitterclone.config;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.comment.Comment;
+import me.dblab.twitterclone.explore.Explore;
+import me.dblab.twitterclone.favorite.Favorite;
+import me.dblab.twitterclone.favorite.FavoriteRepository;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.follow.FollowRepository;
+import me.dblab.twitterclone.timeline.Timeline;
+import me.dblab.twitterclone.tweet.LikeCounter;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class IndexProvisionerTest {
+
+    @Autowired
+    IndexProvisioner indexProvisioner;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    FavoriteRepository favoriteRepository;
+
+    @Autowired
+    FollowRepository followRepository;
+
+    @Autowired
+    LikeCounter likeCounter;
+
+    @BeforeEach
+    public void setUp() {
+        favoriteRepository.deleteAll().then(followRepository.deleteAll()).block();
+        indexProvisioner.provision().block();
+    }
+
+    @Test
+    @DisplayName("각 쿼리 메소드가 컬렉션 스캔 없이 인덱스를 사용하는지 explain 으로 확인")
+    public void queriesUseIndexes() {
+        thenUsesIndex(Account.class, new Document("email", "test@gmail.com"), null, "email_unique");
+        thenUsesIndex(Account.class, new Document("accountNo", 1L), null, "account_no_unique");
+        thenUsesIndex(Account.class, new Document("followerCount", new Document("$gt", 10000L)), null, "follower_count");
+        thenUsesIndex(Tweet.class, new Document("authorEmail", "test@gmail.com"), new Document("createdDate", -1).append("_id", -1), "author_created_id");
+        thenUsesIndex(Follow.class, new Document("followerNo", 1L), null, "follower_following_no_unique");
+        thenUsesIndex(Follow.class, new Document("followingNo", 1L), null, "following_no");
+        thenUsesIndex(Favorite.class, new Document("accountEmail", "test@gmail.com").append("tweetId", "tweet"), null, "account_tweet_unique");
+        thenUsesIndex(Favorite.class, new Document("tweetId", "tweet"), new Document("createdDate", -1).append("_id", -1), "tweet_created");
+        thenUsesIndex(Comment.class, new Document("tweetId", "tweet"), new Document("createdAt", -1).append("_id", -1), "tweet_created");
+        thenUsesIndex(Comment.class, new Document("tweetId", "tweet").append("parentCommentId", null), new Document("createdAt", -1).append("_id", -1), "tweet_created");
+        thenUsesIndex(Comment.class, new Document("parentCommentId", "comment"), new Document("createdAt", -1).append("_id", -1), "parent_created");
+        thenUsesIndex(Explore.class, new Document("accountEmail", "test@gmail.com"), new Document("keyword", 1), "account_keyword");
+        thenUsesIndex(Timeline.class, new Document("ownerEmail", "test@gmail.com"), new Document("createdDate", -1).append("tweetId", -1), "owner_created_tweet");
+        thenUsesIndex(Timeline.class, new Document("tweetId", "tweet"), null, "tweet");
+    }
+
+    @Test
+    @DisplayName("같은 유저가 같은 트윗에 좋아요를 두 번 저장할 수 없다")
+    public void favoriteIsUnique() {
+        Favorite favorite = Favorite.builder().accountEmail("test@gmail.com").tweetId("tweet").build();
+        Favorite duplicated = Favorite.builder().accountEmail("test@gmail.com").tweetId("tweet").build();
+
+        StepVerifier.create(favoriteRepository.save(favorite).then(favoriteRepository.save(duplicated)))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("같은 유저를 두 번 팔로잉할 수 없다")
+    public void followIsUnique() {
+        Follow follow = Follow.builder().followerNo(1L).followingNo(2L).build();
+        Follow duplicated = Follow.builder().followerNo(1L).followingNo(2L).build();
+
+        StepVerifier.create(followRepository.save(follow).then(followRepository.save(duplicated)))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("기존 좋아요에 중복이 있으면 가장 오래된 문서만 남기고 지운 만큼 countLike 를 줄인다")
+    public void removeDuplicatedFavoritesBeforeUniqueIndex() {
+        reactiveMongoTemplate.indexOps(Favorite.class).dropIndex("account_tweet_unique").block();
+        Tweet tweet = reactiveMongoTemplate.insert(Tweet.builder().content("tweet").countLike(3).build()).block();
+        Favorite first = favoriteRepository.save(Favorite.builder().accountEmail("test@gmail.com").tweetId(tweet.getId()).build()).block();
+        favoriteRepository.save(Favorite.builder().accountEmail("test@gmail.com").tweetId(tweet.getId()).build()).block();
+        favoriteRepository.save(Favorite.builder().accountEmail("test@gmail.com").tweetId(tweet.getId()).build()).block();
+        favoriteRepository.save(Favorite.builder().accountEmail("test@gmail.com").tweetId("other").build()).block();
+
+        indexProvisioner.provision().block();
+        likeCounter.flush().block();
+
+        StepVerifier.create(favoriteRepository.findAll().map(Favorite::getTweetId).collectList())
+                .assertNext(tweetIds -> then(tweetIds).containsExactlyInAnyOrder(tweet.getId(), "other"))
+                .verifyComplete();
+        StepVerifier.create(favoriteRepository.findById(first.getId()))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(reactiveMongoTemplate.findById(tweet.getId(), Tweet.class))
+                .assertNext(saved -> then(saved.getCountLike()).isEqualTo(1))
+                .verifyComplete();
+        then(reactiveMongoTemplate.indexOps(Favorite.class).getIndexInfo().map(IndexInfo::getName).collectList().block())
+                .contains("account_tweet_unique");
+    }
+
+    @Test
+    @DisplayName("기존 팔로우에 중복이 있으면 하나만 남기고 지운 만큼 양쪽 계정의 팔로우 수를 줄인다")
+    public void removeDuplicatedFollowsBeforeUniqueIndex() {
+        reactiveMongoTemplate.indexOps(Follow.class).dropIndex("follower_following_no_unique").block();
+        Account follower = reactiveMongoTemplate.insert(Account.builder().email("follower@index.test").accountNo(-1L).followingCount(2).build()).block();
+        Account following = reactiveMongoTemplate.insert(Account.builder().email("following@index.test").accountNo(-2L).followerCount(2).build()).block();
+        try {
+            followRepository.save(Follow.builder().followerNo(-1L).followingNo(-2L).build()).block();
+            followRepository.save(Follow.builder().followerNo(-1L).followingNo(-2L).build()).block();
+
+            indexProvisioner.provision().block();
+
+            StepVerifier.create(followRepository.count())
+                    .expectNext(1L)
+                    .verifyComplete();
+            StepVerifier.create(reactiveMongoTemplate.findById(follower.getId(), Account.class))
+                    .assertNext(saved -> then(saved.getFollowingCount()).isEqualTo(1))
+                    .verifyComplete();
+            StepVerifier.create(reactiveMongoTemplate.findById(following.getId(), Account.class))
+                    .assertNext(saved -> then(saved.getFollowerCount()).isEqualTo(1))
+                    .verifyComplete();
+        } finally {
+            reactiveMongoTemplate.remove(follower).then(reactiveMongoTemplate.remove(following)).block();
+        }
+    }
+
+    @Test
+    @DisplayName("계정 email 이 중복되면 지우지 않고 기동을 멈춘다")
+    public void duplicatedAccountsStopProvisioning() {
+        reactiveMongoTemplate.indexOps(Account.class).dropIndex("email_unique").block();
+        Account first = reactiveMongoTemplate.insert(Account.builder().email("duplicated@index.test").build()).block();
+        Account second = reactiveMongoTemplate.insert(Account.builder().email("duplicated@index.test").build()).block();
+        try {
+            StepVerifier.create(indexProvisioner.provision())
+                    .expectError(IllegalStateException.class)
+                    .verify();
+
+            StepVerifier.create(reactiveMongoTemplate.count(Query.query(Criteria.where("email").is("duplicated@index.test")), Account.class))
+                    .expectNext(2L)
+                    .verifyComplete();
+        } finally {
+            reactiveMongoTemplate.remove(first).then(reactiveMongoTemplate.remove(second)).block();
+            indexProvisioner.provision().block();
+        }
+    }
+
+    private void thenUsesIndex(Class<?> type, Document filter, Document sort, String indexName) {
+        Document find = new Document("find", reactiveMongoTemplate.getCollectionName(type)).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        Document explain = reactiveMongoTemplate.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner")).block();
+
+        String winningPlan = ((Document) explain.get("queryPlanner")).get("winningPlan", Document.class).toJson();
+        then(winningPlan).contains("IXSCAN").contains(indexName).doesNotContain("COLLSCAN");
+    }
+}
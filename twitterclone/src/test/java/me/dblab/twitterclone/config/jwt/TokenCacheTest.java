@@ -0,0 +1,66 @@
+package me.dblab.twitterclone.config.jwt;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.Role;
+import me.dblab.twitterclone.common.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import reactor.test.StepVerifier;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class TokenCacheTest {
+
+    private TokenProvider tokenProvider;
+    private TokenCache tokenCache;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        tokenProvider = new TokenProvider();
+        tokenCache = new TokenCache(tokenProvider, new AppProperties());
+        token = tokenProvider.generateToken(Account.builder()
+                .email("test@gmail.com")
+                .roles(Collections.singletonList(Role.USER))
+                .build());
+    }
+
+    @Test
+    @DisplayName("같은 토큰은 한 번만 검증하고 캐시된 결과를 돌려준다")
+    public void verifyOnce() {
+        VerifiedToken first = tokenCache.verify(token);
+        VerifiedToken second = tokenCache.verify(token);
+
+        then(second).isSameAs(first);
+        then(first.getUsername()).isEqualTo("test@gmail.com");
+        then(first.getAuthorities()).extracting(Object::toString).containsExactly(Role.USER.toString());
+        then(first.isExpired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("서명이 맞지 않는 토큰은 캐시하지 않고 인증에 실패한다")
+    public void rejectTamperedToken() {
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThatThrownBy(() -> tokenCache.verify(tampered)).isInstanceOf(Exception.class);
+        StepVerifier.create(new AuthenticationManager(tokenCache).authenticate(new UsernamePasswordAuthenticationToken(tampered, tampered)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("캐시를 거친 인증도 username 과 권한을 그대로 담는다")
+    public void authenticate() {
+        AuthenticationManager authenticationManager = new AuthenticationManager(tokenCache);
+
+        StepVerifier.create(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(token, token)))
+                .assertNext(authentication -> {
+                    then(authentication.getPrincipal()).isEqualTo("test@gmail.com");
+                    then(authentication.getAuthorities()).extracting(Object::toString).containsExactly(Role.USER.toString());
+                })
+                .verifyComplete();
+    }
+}
@@ -13,7 +13,6 @@ import me.dblab.twitterclone.tweet.TweetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -47,9 +46,6 @@ public class ExploreControllerTests extends BaseControllerTest {
     @Autowired
     ExploreRepository exploreRepository;
 
-    @Autowired
-    ModelMapper modelMapper;
-
     private final String accountUrl = "/api/users";
     private final String tweetUrl = "/api/tweets";
     private final String exploreUrl = "/api/explores";
@@ -122,6 +118,23 @@ public class ExploreControllerTests extends BaseControllerTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("접두어로 트윗을 검색하고 limit 만큼 나눠 받는다")
+    void exploreTweet_prefix_paging() {
+        ExploreDto exploreDto = ExploreDto.builder().keyword("게시").build();
+
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder.path(exploreUrl + "/keywords").queryParam("limit", 5).build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .body(Mono.just(exploreDto), ExploreDto.class)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(5)
+                .jsonPath("$[0].content").value(content -> then((String) content).startsWith("게시물"));
+    }
+
     @Test
     @DisplayName("keyword가 null인 트윗 검색")
     void exploreTweet_null() throws Exception {
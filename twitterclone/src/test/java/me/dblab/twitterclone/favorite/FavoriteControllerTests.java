@@ -10,19 +10,22 @@ import me.dblab.twitterclone.config.jwt.TokenProvider;
 import me.dblab.twitterclone.tweet.Tweet;
 import me.dblab.twitterclone.tweet.TweetDto;
 import me.dblab.twitterclone.tweet.TweetRepository;
+import me.dblab.twitterclone.tweet.TweetService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.IntStream;
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -51,7 +54,7 @@ class FavoriteControllerTests extends BaseControllerTest {
     AccountService accountService;
 
     @Autowired
-    ModelMapper modelMapper;
+    TweetService tweetService;
 
     private final String accountUrl = "/api/users";
     private final String tweetUrl = "/api/tweets";
@@ -235,13 +238,67 @@ class FavoriteControllerTests extends BaseControllerTest {
                 .jsonPath("accountEmail").exists()
                 .jsonPath("tweetId").exists();
 
-        //Tweet 객체의 좋아요 개수 확인
-        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+        //Tweet 객체의 좋아요 개수 확인 (flush 되지 않은 좋아요도 포함)
+        StepVerifier.create(tweetService.getTweet(tweet.getId()))
                 .assertNext(tweet1 -> assertEquals(tweet1.getCountLike(), 1))
                 .verifyComplete();
     }
 
 
+    @Test
+    @DisplayName("좋아요한 계정을 cursor 와 limit 으로 나눠 읽고, 잘못된 cursor 는 Bad Request")
+    void pageLikeAccounts() {
+        IntStream.rangeClosed(1, 2).forEach(i -> {
+            webTestClient.post()
+                    .uri(accountUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Mono.just(createAccountDto(i)), AccountDto.class)
+                    .exchange()
+                    .expectStatus()
+                    .isCreated();
+            Account liker = accountRepository.findByEmail(createEmail(i)).block();
+            webTestClient.post()
+                    .uri(favoriteUrl + "/{tweetId}", tweet.getId())
+                    .header(HttpHeaders.AUTHORIZATION, BEARER + tokenProvider.generateToken(liker))
+                    .exchange()
+                    .expectStatus()
+                    .isCreated();
+        });
+
+        EntityExchangeResult<List<Account>> first = getLikeAccounts(1, null);
+        then(first.getResponseBody()).extracting(Account::getEmail).containsExactly(createEmail(2));
+        String next = first.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER);
+        then(next).isNotNull();
+
+        EntityExchangeResult<List<Account>> second = getLikeAccounts(1, next);
+        then(second.getResponseBody()).extracting(Account::getEmail).containsExactly(createEmail(1));
+        then(getLikeAccounts(1, second.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER)).getResponseBody()).isEmpty();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(favoriteUrl + "/" + tweet.getId()).queryParam("cursor", "invalid!").build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    private EntityExchangeResult<List<Account>> getLikeAccounts(int limit, String cursor) {
+        return webTestClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path(favoriteUrl + "/" + tweet.getId()).queryParam("limit", limit);
+                    if (cursor != null) {
+                        uriBuilder.queryParam("cursor", cursor);
+                    }
+                    return uriBuilder.build();
+                })
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Account.class)
+                .returnResult();
+    }
+
     private String currentAccount() throws Exception {
         Mono<Account> byEmail = accountRepository.findByEmail(tokenProvider.getUsernameFromToken(jwt.replace(BEARER, "")));
         return Objects.requireNonNull(byEmail.block()).getEmail();
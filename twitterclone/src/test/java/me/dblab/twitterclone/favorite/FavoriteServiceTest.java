@@ -0,0 +1,140 @@
+package me.dblab.twitterclone.favorite;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.account.Role;
+import me.dblab.twitterclone.tweet.LikeCounter;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class FavoriteServiceTest {
+
+    private static final int LIKES = 10000;
+    private static final int CONCURRENCY = 256;
+
+    @Autowired
+    FavoriteService favoriteService;
+
+    @Autowired
+    FavoriteRepository favoriteRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TweetRepository tweetRepository;
+
+    @Autowired
+    LikeCounter likeCounter;
+
+    private Tweet tweet;
+
+    @BeforeEach
+    public void setUp() {
+        accountRepository.deleteAll().then(favoriteRepository.deleteAll()).then(tweetRepository.deleteAll()).block();
+
+        accountRepository.saveAll(Flux.range(0, LIKES).map(this::createAccount)).then().block();
+        tweet = tweetRepository.save(Tweet.builder()
+                .content("viral tweet")
+                .authorEmail(createEmail(0))
+                .createdDate(LocalDateTime.now())
+                .build()).block();
+    }
+
+    @Test
+    @DisplayName("10000명이 동시에 좋아요를 눌러도 countLike 가 정확하다")
+    public void concurrentLikes() {
+        StepVerifier.create(Flux.range(0, LIKES)
+                        .flatMap(i -> like(createEmail(i)), CONCURRENCY)
+                        .filter(response -> response.getStatusCode().is2xxSuccessful())
+                        .count())
+                .expectNext((long) LIKES)
+                .verifyComplete();
+
+        likeCounter.flush().block();
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(liked -> then(liked.getCountLike()).isEqualTo(LIKES))
+                .verifyComplete();
+        StepVerifier.create(favoriteRepository.findAllByTweetId(tweet.getId()).count())
+                .expectNext((long) LIKES)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("같은 유저의 좋아요가 동시에 여러 번 와도 한 번만 반영된다")
+    public void concurrentDuplicateLikes() {
+        StepVerifier.create(Flux.range(0, 100)
+                        .flatMap(i -> like(createEmail(0)), CONCURRENCY)
+                        .filter(response -> response.getStatusCode().is2xxSuccessful())
+                        .count())
+                .expectNext(1L)
+                .verifyComplete();
+
+        likeCounter.flush().block();
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(liked -> then(liked.getCountLike()).isEqualTo(1))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("동시에 좋아요를 누르고 취소해도 countLike 가 0으로 돌아온다")
+    public void concurrentLikesAndUnlikes() {
+        Flux.range(0, LIKES)
+                .flatMap(i -> like(createEmail(i)), CONCURRENCY)
+                .then()
+                .block();
+
+        Flux.range(0, 2)
+                .flatMap(attempt -> favoriteRepository.findAllByTweetId(tweet.getId()))
+                .flatMap(favorite -> favoriteService.deleteLike(favorite.getId()).subscribeOn(Schedulers.parallel()), CONCURRENCY)
+                .then()
+                .block();
+
+        likeCounter.flush().block();
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(unliked -> then(unliked.getCountLike()).isEqualTo(0))
+                .verifyComplete();
+    }
+
+    private Mono<ResponseEntity> like(String email) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(email, null,
+                Collections.singletonList(new SimpleGrantedAuthority(Role.USER.toString())));
+        return favoriteService.saveLike(tweet.getId())
+                .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    private Account createAccount(int i) {
+        return Account.builder()
+                .email(createEmail(i))
+                .username("user" + i)
+                .nickname("user" + i)
+                .roles(Collections.singletonList(Role.USER))
+                .build();
+    }
+
+    private String createEmail(int i) {
+        return "like" + i + "@gmail.com";
+    }
+}
@@ -10,14 +10,15 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import java.util.Optional;
 import java.util.stream.IntStream;
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
 import static org.assertj.core.api.Assertions.fail;
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -32,9 +33,6 @@ public class FollowControllerTest extends BaseControllerTest {
     @Autowired
     AccountRepository accountRepository;
 
-    @Autowired
-    ModelMapper modelMapper;
-
     @Autowired
     FollowRepository followRepository;
 
@@ -65,6 +63,41 @@ public class FollowControllerTest extends BaseControllerTest {
         jwt = "Bearer " + tokenProvider.generateToken(block);
     }
 
+    @Test
+    @DisplayName("NDJSON 으로 여러 계정을 한 번에 팔로잉")
+    public void followingBatch() {
+        String body = "{\"followingEmail\":\"" + createEmail(1) + "\"}\n"
+                + "{\"followingEmail\":\"" + createEmail(2) + "\"}\n"
+                + "{\"followingEmail\":\"nobody@gmail.com\"}\n"
+                + "{\"followingEmail\":\"" + createEmail(1) + "\"}\n";
+
+        String response = webTestClient.post()
+                .uri(followUrl + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .accept(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .bodyValue(body)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        then(response.split("\n")).hasSize(4);
+        then(response.split("\n")[0]).contains("\"status\":201");
+        then(response.split("\n")[1]).contains("\"status\":201");
+        then(response.split("\n")[2]).contains("\"status\":400", "unknown account");
+        then(response.split("\n")[3]).contains("\"status\":400", "already following");
+
+        StepVerifier.create(followsOf(0).count())
+                .expectNext(2L)
+                .verifyComplete();
+        StepVerifier.create(accountRepository.findByEmail(createEmail(0)))
+                .assertNext(account -> then(account.getFollowingCount()).isEqualTo(2L))
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("정상적으로 팔로잉이 동작하는 테스트")
     public void following() {
@@ -81,10 +114,17 @@ public class FollowControllerTest extends BaseControllerTest {
                     .jsonPath("followerEmail").value(Matchers.equalTo(createEmail(0)))
         );
 
-        Flux<Follow> allByFollowerEmail = followRepository.findAllByFollowerEmail(createEmail(0));
+        Flux<Follow> allByFollowerEmail = followsOf(0);
         StepVerifier.create(allByFollowerEmail)
                 .expectNextCount(30L)
                 .verifyComplete();
+
+        StepVerifier.create(accountRepository.findByEmail(createEmail(0)))
+                .assertNext(account -> then(account.getFollowingCount()).isEqualTo(30L))
+                .verifyComplete();
+        StepVerifier.create(accountRepository.findByEmail(createEmail(1)))
+                .assertNext(account -> then(account.getFollowerCount()).isEqualTo(1L))
+                .verifyComplete();
     }
 
     @Test
@@ -98,7 +138,7 @@ public class FollowControllerTest extends BaseControllerTest {
                 .expectStatus()
                 .isBadRequest();
 
-        Flux<Follow> allByFollowerEmail = followRepository.findAllByFollowerEmail(createEmail(0));
+        Flux<Follow> allByFollowerEmail = followsOf(0);
         StepVerifier.create(allByFollowerEmail)
                 .verifyComplete();
     }
@@ -121,7 +161,8 @@ public class FollowControllerTest extends BaseControllerTest {
 
         //5개의 계정 언팔로우
         IntStream.rangeClosed(1, 5).forEach(index -> {
-            Mono<Follow> byFollowingEmail = followRepository.findByFollowingEmail(createEmail(index));
+            Mono<Follow> byFollowingEmail = accountRepository.findByEmail(createEmail(index))
+                    .flatMap(account -> followRepository.findByFollowingNo(account.getAccountNo()));
             String id = Optional.ofNullable(byFollowingEmail.block().getId()).orElseGet(() -> fail("테스트 실패!"));
 
             webTestClient.delete()
@@ -132,10 +173,22 @@ public class FollowControllerTest extends BaseControllerTest {
                 .isOk();
         });
 
-        Flux<Follow> allByFollowerEmail = followRepository.findAllByFollowerEmail(createEmail(0));
+        Flux<Follow> allByFollowerEmail = followsOf(0);
         StepVerifier.create(allByFollowerEmail)
                 .expectNextCount(25L)
                 .verifyComplete();
+
+        StepVerifier.create(accountRepository.findByEmail(createEmail(0)))
+                .assertNext(account -> then(account.getFollowingCount()).isEqualTo(25L))
+                .verifyComplete();
+        StepVerifier.create(accountRepository.findByEmail(createEmail(1)))
+                .assertNext(account -> then(account.getFollowerCount()).isZero())
+                .verifyComplete();
+    }
+
+    private Flux<Follow> followsOf(int index) {
+        return accountRepository.findByEmail(createEmail(index))
+                .flatMapMany(account -> followRepository.findAllByFollowerNo(account.getAccountNo()));
     }
 
     private String createEmail(int index) {
@@ -0,0 +1,89 @@
+package me.dblab.twitterclone.follow;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDirectory;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FollowGraphTest {
+
+    private FollowRepository followRepository;
+    private FollowGraph followGraph;
+
+    @BeforeEach
+    public void setUp() {
+        followRepository = mock(FollowRepository.class);
+        given(followRepository.findAllByFollowerNo(1L))
+                .willReturn(Flux.just(follow(4L), follow(2L)));
+
+        AppProperties appProperties = new AppProperties();
+        AccountDirectory accountDirectory = new AccountDirectory(mock(AccountRepository.class), appProperties);
+        accountDirectory.put(account(1L, "reader@gmail.com"));
+        accountDirectory.put(account(2L, "a@gmail.com"));
+        accountDirectory.put(account(3L, "b@gmail.com"));
+        accountDirectory.put(account(4L, "c@gmail.com"));
+        followGraph = new FollowGraph(followRepository, accountDirectory, appProperties);
+    }
+
+    @Test
+    @DisplayName("팔로잉 목록은 한 번만 읽고 이후에는 캐시에서 accountNo 순서로 준다")
+    public void loadOnce() {
+        StepVerifier.create(followGraph.followings("reader@gmail.com"))
+                .expectNext("a@gmail.com", "c@gmail.com")
+                .verifyComplete();
+        StepVerifier.create(followGraph.followings("reader@gmail.com"))
+                .expectNext("a@gmail.com", "c@gmail.com")
+                .verifyComplete();
+
+        verify(followRepository, times(1)).findAllByFollowerNo(1L);
+    }
+
+    @Test
+    @DisplayName("캐시된 목록에 팔로우/언팔로우가 반영된다")
+    public void followAndUnfollow() {
+        followGraph.followings("reader@gmail.com").blockLast();
+
+        followGraph.follow(1L, 3L);
+        followGraph.follow(1L, 3L);
+        followGraph.unfollow(1L, 4L);
+
+        StepVerifier.create(followGraph.followings("reader@gmail.com"))
+                .expectNext("a@gmail.com", "b@gmail.com")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("정렬된 배열에 넣고 빼도 정렬이 유지된다")
+    public void sortedArray() {
+        long[] added = FollowGraph.add(FollowGraph.add(new long[] {1L, 5L}, 3L), 7L);
+
+        then(added).containsExactly(1L, 3L, 5L, 7L);
+        then(FollowGraph.remove(added, 1L)).containsExactly(3L, 5L, 7L);
+        then(FollowGraph.remove(added, 4L)).isSameAs(added);
+    }
+
+    private Follow follow(long followingNo) {
+        return Follow.builder()
+                .followerNo(1L)
+                .followingNo(followingNo)
+                .build();
+    }
+
+    private Account account(long accountNo, String email) {
+        return Account.builder()
+                .accountNo(accountNo)
+                .email(email)
+                .build();
+    }
+}
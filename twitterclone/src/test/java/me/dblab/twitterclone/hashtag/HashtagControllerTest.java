@@ -0,0 +1,111 @@
+package me.dblab.twitterclone.hashtag;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDto;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.BaseControllerTest;
+import me.dblab.twitterclone.config.jwt.TokenProvider;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetDto;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import java.util.stream.IntStream;
+
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
+
+public class HashtagControllerTest extends BaseControllerTest {
+
+    @Autowired
+    TweetRepository tweetRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TokenProvider tokenProvider;
+
+    private final String accountUrl = "/api/users";
+    private final String tweetUrl = "/api/tweets";
+    private final String hashtagUrl = "/api/hashtags";
+    private String jwt;
+
+    @BeforeEach
+    void setUp() {
+        tweetRepository.deleteAll().then(accountRepository.deleteAll()).block();
+        AccountDto account = createAccountDto();
+
+        webTestClient.post()
+                .uri(accountUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(account), Account.class)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+
+        jwt = "Bearer " + tokenProvider.generateToken(accountRepository.findByEmail(appProperties.getTestEmail()).block());
+
+        IntStream.rangeClosed(1, 5).forEach(i -> createTweet("경성대학교 #졸업 #트렌드 게시물" + i));
+        createTweet("경성대학교 #졸업");
+    }
+
+    @Test
+    @DisplayName("해시태그가 달린 트윗을 커서로 나눠서 조회")
+    void getTweetsByHashtag() {
+        String nextCursor = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(hashtagUrl + "/트렌드/tweets").queryParam("limit", 3).build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader().exists(NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .returnResult()
+                .getResponseHeaders()
+                .getFirst(NEXT_CURSOR_HEADER);
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(hashtagUrl + "/트렌드/tweets").queryParam("limit", 3).queryParam("cursor", nextCursor).build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader().doesNotExist(NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("많이 쓰인 해시태그가 트렌드 상위에 온다")
+    void getTrending() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(hashtagUrl + "/trending").queryParam("limit", 2).build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].tag").isEqualTo("졸업")
+                .jsonPath("$[1].tag").isEqualTo("트렌드");
+    }
+
+    private void createTweet(String content) {
+        TweetDto tweetDto = new TweetDto();
+        tweetDto.setContent(content);
+
+        webTestClient.post()
+                .uri(tweetUrl)
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .body(Mono.just(tweetDto), Tweet.class)
+                .exchange()
+                .expectStatus()
+                .isCreated();
+    }
+}
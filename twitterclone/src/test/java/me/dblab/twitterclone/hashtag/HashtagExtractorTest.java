@@ -0,0 +1,57 @@
+package me.dblab.twitterclone.hashtag;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class HashtagExtractorTest {
+
+    private static final String REGEX_SPECIAL_CHAR = "^[ㄱ-ㅎ가-힣a-zA-Z0-9]*$";
+
+    @Test
+    @DisplayName("공백으로 나뉜 #단어 중 허용된 문자로만 이루어진 태그를 뽑는다")
+    public void extract() {
+        then(HashtagExtractor.extract("경성대 #졸업 #Spring5 #ㅋㅋ\n#줄바꿈\t#탭"))
+                .containsExactlyInAnyOrder("졸업", "Spring5", "ㅋㅋ", "줄바꿈", "탭");
+    }
+
+    @Test
+    @DisplayName("특수문자가 섞였거나 단어 중간의 # 은 태그가 아니다")
+    public void rejectInvalid() {
+        then(HashtagExtractor.extract("#태그! a#b ##double #under_score #émoji")).isNull();
+    }
+
+    @Test
+    @DisplayName("태그가 없거나 # 만 있으면 null")
+    public void noTag() {
+        then(HashtagExtractor.extract("컨텐츠")).isNull();
+        then(HashtagExtractor.extract("# 혼자 # ")).isNull();
+        then(HashtagExtractor.extract("")).isNull();
+    }
+
+    @Test
+    @DisplayName("기존 split/regex 방식과 같은 결과 (빈 태그 제외)")
+    public void sameAsRegex() {
+        String[] contents = {
+                "#a #b #a",
+                "  #앞공백   #뒤공백  ",
+                "#中文 #日本語 #한글",
+                "#가나다라마바사아자차카타파하 #123 #x1y2",
+                "문장 끝 #태그.",
+        };
+        for (String content : contents) {
+            Set<String> expected = Arrays.stream(content.split("\\s"))
+                    .filter(hashTag -> hashTag.startsWith("#"))
+                    .map(hashTag -> hashTag.substring(1))
+                    .filter(hashTag -> !hashTag.isEmpty() && hashTag.matches(REGEX_SPECIAL_CHAR))
+                    .collect(Collectors.toSet());
+            Set<String> actual = HashtagExtractor.extract(content);
+            then(actual == null ? Collections.<String>emptySet() : actual).isEqualTo(expected);
+        }
+    }
+}
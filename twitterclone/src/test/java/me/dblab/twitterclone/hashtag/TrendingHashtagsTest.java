@@ -0,0 +1,70 @@
+package me.dblab.twitterclone.hashtag;
+
+import me.dblab.twitterclone.common.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class TrendingHashtagsTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private AtomicLong now;
+    private TrendingHashtags trendingHashtags;
+
+    @BeforeEach
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setTrendingHalfLife(Duration.ofHours(1));
+        appProperties.setTrendingMaxTags(2);
+        now = new AtomicLong(HOUR * 10);
+        trendingHashtags = new TrendingHashtags(null, appProperties, now::get);
+    }
+
+    @Test
+    @DisplayName("half-life 가 지나면 점수가 절반이 된다")
+    public void decay() {
+        trendingHashtags.record(Arrays.asList("a", "a"));
+        now.addAndGet(HOUR);
+
+        then(trendingHashtags.top(1).get(0).getScore()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("최근에 많이 쓰인 태그가 먼저 온다")
+    public void recentBeatsOld() {
+        trendingHashtags.record(Arrays.asList("old", "old", "old"));
+        now.addAndGet(HOUR * 2);
+        trendingHashtags.record(Arrays.asList("new", "new"));
+        trendingHashtags.record(Collections.singletonList("one"));
+
+        then(trendingHashtags.top(3)).extracting(Trend::getTag).containsExactly("new", "one", "old");
+    }
+
+    @Test
+    @DisplayName("과거 시각의 사용은 그만큼 감쇠된 값으로 더해진다")
+    public void recordInPast() {
+        trendingHashtags.record(Collections.singletonList("a"), now.get() - HOUR);
+
+        then(trendingHashtags.top(1).get(0).getScore()).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("prune 은 maxTags 를 넘는 하위 태그와 거의 0이 된 태그를 지운다")
+    public void prune() {
+        trendingHashtags.record(Arrays.asList("a", "a", "a", "b", "b", "c"));
+        trendingHashtags.prune();
+        then(trendingHashtags.top(10)).extracting(Trend::getTag).containsExactly("a", "b");
+
+        now.addAndGet(HOUR * 20);
+        trendingHashtags.prune();
+        then(trendingHashtags.top(10)).isEmpty();
+    }
+}
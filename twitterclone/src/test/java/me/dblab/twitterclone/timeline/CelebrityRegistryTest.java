@@ -0,0 +1,64 @@
+package me.dblab.twitterclone.timeline;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class CelebrityRegistryTest {
+
+    private AccountRepository accountRepository;
+    private CelebrityRegistry celebrityRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        celebrityRegistry = new CelebrityRegistry(accountRepository, new AppProperties());
+    }
+
+    @Test
+    @DisplayName("팔로워 수가 기준을 넘는 계정을 셀럽으로 본다")
+    public void refresh() {
+        givenCelebrities("celebrity@gmail.com");
+
+        celebrityRegistry.refresh().block();
+
+        then(celebrityRegistry.contains("celebrity@gmail.com")).isTrue();
+        then(celebrityRegistry.isPulled("celebrity@gmail.com")).isTrue();
+        then(celebrityRegistry.contains("author@gmail.com")).isFalse();
+    }
+
+    @Test
+    @DisplayName("셀럽에서 빠진 계정은 알리고, 채우기가 끝날 때까지 조회 시점에 가져온다")
+    public void demotion() {
+        givenCelebrities("celebrity@gmail.com", "author@gmail.com");
+        celebrityRegistry.refresh().block();
+        givenCelebrities("celebrity@gmail.com");
+
+        StepVerifier.create(celebrityRegistry.demotions())
+                .then(() -> celebrityRegistry.refresh().block())
+                .expectNext("author@gmail.com")
+                .thenCancel()
+                .verify();
+
+        then(celebrityRegistry.contains("author@gmail.com")).isFalse();
+        then(celebrityRegistry.isPulled("author@gmail.com")).isTrue();
+        celebrityRegistry.demotionDone("author@gmail.com");
+        then(celebrityRegistry.isPulled("author@gmail.com")).isFalse();
+        then(celebrityRegistry.isPulled("celebrity@gmail.com")).isTrue();
+    }
+
+    private void givenCelebrities(String... emails) {
+        given(accountRepository.findEmailsByFollowerCountGreaterThan(anyLong()))
+                .willReturn(Flux.fromArray(emails).map(email -> Account.builder().email(email).build()));
+    }
+}
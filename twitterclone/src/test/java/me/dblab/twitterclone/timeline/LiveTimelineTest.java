@@ -0,0 +1,169 @@
+package me.dblab.twitterclone.timeline;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDirectory;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.follow.FollowGraph;
+import me.dblab.twitterclone.follow.FollowRepository;
+import me.dblab.twitterclone.tweet.Tweet;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveChangeStreamOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import java.time.Duration;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class LiveTimelineTest {
+
+    private LiveTimeline liveTimeline;
+    private ReactiveChangeStreamOperation.ChangeStreamWithFilterAndProjection<Tweet> changeStream;
+
+    @BeforeEach
+    public void setUp() {
+        ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class, RETURNS_DEEP_STUBS);
+        changeStream = reactiveMongoTemplate.changeStream(Tweet.class).watchCollection(Tweet.class).filter(any(CriteriaDefinition.class));
+        given(changeStream.listen()).willReturn(Flux.never());
+        FollowRepository followRepository = mock(FollowRepository.class);
+        given(followRepository.findAllByFollowerNo(1L))
+                .willReturn(Flux.just(Follow.builder().followerNo(1L).followingNo(2L).build()));
+        given(followRepository.findAllByFollowerNo(3L)).willReturn(Flux.empty());
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.setLiveBufferSize(2);
+        AccountDirectory accountDirectory = new AccountDirectory(mock(AccountRepository.class), appProperties);
+        accountDirectory.put(Account.builder().accountNo(1L).email("reader@gmail.com").build());
+        accountDirectory.put(Account.builder().accountNo(2L).email("author@gmail.com").build());
+        accountDirectory.put(Account.builder().accountNo(3L).email("other@gmail.com").build());
+        FollowGraph followGraph = new FollowGraph(followRepository, accountDirectory, appProperties);
+        liveTimeline = new LiveTimeline(reactiveMongoTemplate, followGraph, appProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        liveTimeline.stop();
+    }
+
+    @Test
+    @DisplayName("본인과 팔로잉한 계정의 트윗만 받는다")
+    public void routeToFollowers() {
+        StepVerifier.create(liveTimeline.connect("reader@gmail.com"))
+                .then(() -> {
+                    liveTimeline.dispatch(tweet("1", "author@gmail.com"));
+                    liveTimeline.dispatch(tweet("2", "stranger@gmail.com"));
+                    liveTimeline.dispatch(tweet("3", "reader@gmail.com"));
+                })
+                .expectNextMatches(tweet -> tweet.getId().equals("1"))
+                .expectNextMatches(tweet -> tweet.getId().equals("3"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("팔로우/언팔로우는 접속 중인 세션에 바로 반영된다")
+    public void followWhileConnected() {
+        StepVerifier.create(liveTimeline.connect("other@gmail.com"))
+                .then(() -> {
+                    liveTimeline.follow("other@gmail.com", "author@gmail.com");
+                    liveTimeline.dispatch(tweet("1", "author@gmail.com"));
+                    liveTimeline.unfollow("other@gmail.com", "author@gmail.com");
+                    liveTimeline.dispatch(tweet("2", "author@gmail.com"));
+                    liveTimeline.dispatch(tweet("3", "other@gmail.com"));
+                })
+                .expectNextMatches(tweet -> tweet.getId().equals("1"))
+                .expectNextMatches(tweet -> tweet.getId().equals("3"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("느린 클라이언트는 버퍼를 넘는 오래된 트윗부터 버린다")
+    public void dropOldestWhenSlow() {
+        StepVerifier.create(liveTimeline.connect("reader@gmail.com"), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 5; i++) {
+                        liveTimeline.dispatch(tweet(String.valueOf(i), "author@gmail.com"));
+                    }
+                })
+                .thenRequest(2)
+                .expectNextMatches(tweet -> tweet.getId().equals("4"))
+                .expectNextMatches(tweet -> tweet.getId().equals("5"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("연결을 끊으면 세션 인덱스에서 제거된다")
+    public void unregisterOnCancel() {
+        StepVerifier.create(liveTimeline.connect("reader@gmail.com"))
+                .then(() -> then(liveTimeline.sessions("author@gmail.com")).isEqualTo(1))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        then(liveTimeline.sessions("author@gmail.com")).isZero();
+        then(liveTimeline.sessions("reader@gmail.com")).isZero();
+    }
+
+    @Test
+    @DisplayName("resume token 으로 이어 갈 수 없으면 token 을 버리고 현재 시점부터 다시 연다")
+    @SuppressWarnings("unchecked")
+    public void reopenWhenHistoryLost() {
+        ChangeStreamEvent<Tweet> event = mock(ChangeStreamEvent.class);
+        given(event.getResumeToken()).willReturn(new BsonString("token"));
+        MongoCommandException historyLost = new MongoCommandException(new BsonDocument("ok", new BsonDouble(0))
+                .append("code", new BsonInt32(286))
+                .append("errmsg", new BsonString("resume point may no longer be in the oplog")), new ServerAddress());
+        // token 을 받은 뒤 연결이 끊기고, 그 token 으로 다시 열면 oplog 에서 이미 밀려나 있다.
+        given(changeStream.listen())
+                .willReturn(Flux.just(event).concatWith(Flux.error(new MongoSocketReadException("closed", new ServerAddress()))))
+                .willReturn(Flux.never());
+        given(changeStream.resumeAfter(any()).listen()).willReturn(Flux.error(historyLost));
+
+        StepVerifier.create(liveTimeline.connect("reader@gmail.com"))
+                .then(() -> verify(changeStream, timeout(10000).times(2)).listen())
+                .thenCancel()
+                .verify(Duration.ofSeconds(15));
+    }
+
+    @Test
+    @DisplayName("이어 갈 수 없는 change stream 오류를 구분한다")
+    public void notResumable() {
+        MongoCommandException historyLost = new MongoCommandException(new BsonDocument("ok", new BsonDouble(0))
+                .append("code", new BsonInt32(286)), new ServerAddress());
+        MongoCommandException interrupted = new MongoCommandException(new BsonDocument("ok", new BsonDouble(0))
+                .append("code", new BsonInt32(11601)), new ServerAddress());
+
+        then(LiveTimeline.isNotResumable(new UncategorizedMongoDbException("failed", historyLost))).isTrue();
+        then(LiveTimeline.isNotResumable(interrupted)).isFalse();
+        then(LiveTimeline.isNotResumable(new IllegalStateException())).isFalse();
+    }
+
+    private Tweet tweet(String id, String authorEmail) {
+        Tweet tweet = new Tweet();
+        tweet.setId(id);
+        tweet.setAuthorEmail(authorEmail);
+        return tweet;
+    }
+}
@@ -0,0 +1,291 @@
+package me.dblab.twitterclone.timeline;
+
+import me.dblab.twitterclone.account.Account;
+import me.dblab.twitterclone.account.AccountDirectory;
+import me.dblab.twitterclone.account.AccountRepository;
+import me.dblab.twitterclone.common.AppProperties;
+import me.dblab.twitterclone.common.Cursor;
+import me.dblab.twitterclone.follow.Follow;
+import me.dblab.twitterclone.follow.FollowGraph;
+import me.dblab.twitterclone.follow.FollowRepository;
+import me.dblab.twitterclone.tweet.Tweet;
+import me.dblab.twitterclone.tweet.TweetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TimelineServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+    private TimelineRepository timelineRepository;
+    private TweetRepository tweetRepository;
+    private CelebrityRegistry celebrityRegistry;
+    private AppProperties appProperties;
+    private TimelineService timelineService;
+
+    // reader(1) 는 author(2) 와 celebrity(4) 를, other(3) 는 author(2) 를 팔로우한다.
+    @BeforeEach
+    public void setUp() {
+        timelineRepository = mock(TimelineRepository.class);
+        given(timelineRepository.upsertAll(anyList())).willReturn(Mono.empty());
+        tweetRepository = mock(TweetRepository.class);
+        celebrityRegistry = mock(CelebrityRegistry.class);
+        given(celebrityRegistry.contains("celebrity@gmail.com")).willReturn(true);
+        given(celebrityRegistry.isPulled("celebrity@gmail.com")).willReturn(true);
+
+        FollowRepository followRepository = mock(FollowRepository.class);
+        given(followRepository.findAllByFollowerNo(1L)).willReturn(Flux.just(follow(1L, 2L), follow(1L, 4L)));
+        given(followRepository.findAllByFollowingNo(2L)).willReturn(Flux.just(follow(1L, 2L), follow(3L, 2L)));
+        given(followRepository.findAllByFollowingNo(4L)).willReturn(Flux.just(follow(1L, 4L)));
+
+        appProperties = new AppProperties();
+        appProperties.setTimelineMode(TimelineMode.HYBRID);
+        AccountDirectory accountDirectory = new AccountDirectory(mock(AccountRepository.class), appProperties);
+        accountDirectory.put(Account.builder().accountNo(1L).email("reader@gmail.com").build());
+        accountDirectory.put(Account.builder().accountNo(2L).email("author@gmail.com").build());
+        accountDirectory.put(Account.builder().accountNo(3L).email("other@gmail.com").build());
+        accountDirectory.put(Account.builder().accountNo(4L).email("celebrity@gmail.com").build());
+        FollowGraph followGraph = new FollowGraph(followRepository, accountDirectory, appProperties);
+        timelineService = new TimelineService(timelineRepository, tweetRepository, followGraph, celebrityRegistry, appProperties);
+    }
+
+    @Test
+    @DisplayName("작성자와 팔로워의 타임라인에 트윗을 쓴다")
+    public void fanOut() {
+        Tweet tweet = tweet("t1", "author@gmail.com", 0);
+
+        StepVerifier.create(timelineService.fanOut(tweet))
+                .expectNext(tweet)
+                .verifyComplete();
+
+        then(owners(written())).containsExactly("author@gmail.com", "reader@gmail.com", "other@gmail.com");
+    }
+
+    @Test
+    @DisplayName("HYBRID 모드에서 셀럽 트윗은 본인 타임라인에만 쓴다")
+    public void fanOutCelebrity() {
+        timelineService.fanOut(tweet("t1", "celebrity@gmail.com", 0)).block();
+
+        then(owners(written())).containsExactly("celebrity@gmail.com");
+    }
+
+    @Test
+    @DisplayName("PULL 모드에서는 타임라인에 쓰지 않는다")
+    public void fanOutPull() {
+        appProperties.setTimelineMode(TimelineMode.PULL);
+
+        timelineService.fanOut(tweet("t1", "author@gmail.com", 0)).block();
+
+        verify(timelineRepository, never()).upsertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("팔로우하면 상대의 최근 트윗을 팔로워 타임라인에 채운다")
+    public void backfillFollow() {
+        given(tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc("author@gmail.com"))
+                .willReturn(Flux.just(tweet("t2", "author@gmail.com", 1), tweet("t1", "author@gmail.com", 2)));
+
+        timelineService.backfill(Follow.builder().followerEmail("other@gmail.com").followingEmail("author@gmail.com").build()).block();
+
+        List<Timeline> entries = written();
+        then(owners(entries)).containsOnly("other@gmail.com");
+        then(entries.stream().map(Timeline::getTweetId)).containsExactly("t2", "t1");
+    }
+
+    @Test
+    @DisplayName("계정 타임라인을 채울 때 셀럽 트윗은 제외한다")
+    public void backfillOwner() {
+        givenTweets("reader@gmail.com", tweet("t3", "reader@gmail.com", 3));
+        givenTweets("author@gmail.com", tweet("t1", "author@gmail.com", 1), tweet("t4", "author@gmail.com", 4));
+        givenTweets("celebrity@gmail.com", tweet("t2", "celebrity@gmail.com", 2));
+
+        timelineService.backfill("reader@gmail.com").block();
+
+        List<Timeline> entries = written();
+        then(owners(entries)).containsOnly("reader@gmail.com");
+        then(entries.stream().map(Timeline::getTweetId)).containsExactly("t1", "t3", "t4");
+    }
+
+    @Test
+    @DisplayName("언팔로우하면 상대 트윗을 타임라인에서 지운다")
+    public void evict() {
+        given(timelineRepository.deleteAllByOwnerEmailAndAuthorEmail("reader@gmail.com", "author@gmail.com")).willReturn(Mono.empty());
+
+        timelineService.evict(Follow.builder().followerEmail("reader@gmail.com").followingEmail("author@gmail.com").build()).block();
+
+        verify(timelineRepository).deleteAllByOwnerEmailAndAuthorEmail("reader@gmail.com", "author@gmail.com");
+    }
+
+    @Test
+    @DisplayName("backfill 이 끝나기 전에는 PULL 로 읽는다")
+    public void readBeforeBackfill() {
+        appProperties.setTimelineMode(TimelineMode.PUSH);
+        givenTweets("reader@gmail.com");
+        givenTweets("author@gmail.com", tweet("t1", "author@gmail.com", 1));
+        givenTweets("celebrity@gmail.com", tweet("t2", "celebrity@gmail.com", 2));
+
+        StepVerifier.create(timelineService.getTimeline(reader(), Cursor.FIRST, 10).map(Tweet::getId))
+                .expectNext("t1", "t2")
+                .verifyComplete();
+        verify(timelineRepository, never()).findAllByOwnerEmail(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("PUSH 모드에서는 타임라인 순서대로 트윗을 읽고 지워진 트윗은 건너뛴다")
+    public void readPush() {
+        appProperties.setTimelineMode(TimelineMode.PUSH);
+        timelineService.setBackfilled(true);
+        given(timelineRepository.findAllByOwnerEmail("reader@gmail.com", Cursor.FIRST, 10))
+                .willReturn(Flux.just(entry("t1", 1), entry("deleted", 1), entry("t2", 2)));
+        given(tweetRepository.findAllById(Arrays.asList("t1", "deleted", "t2")))
+                .willReturn(Flux.just(tweet("t2", "celebrity@gmail.com", 2), tweet("t1", "author@gmail.com", 1)));
+
+        StepVerifier.create(timelineService.getTimeline(reader(), Cursor.FIRST, 10).map(Tweet::getId))
+                .expectNext("t1", "t2")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("다음 cursor 는 지워진 트윗을 포함한 타임라인 항목으로 정한다")
+    public void pageWithDeletedTweet() {
+        appProperties.setTimelineMode(TimelineMode.PUSH);
+        timelineService.setBackfilled(true);
+        given(timelineRepository.findAllByOwnerEmail("reader@gmail.com", Cursor.FIRST, 2))
+                .willReturn(Flux.just(entry("t1", 1), entry("deleted", 2)));
+        given(tweetRepository.findAllById(Arrays.asList("t1", "deleted")))
+                .willReturn(Flux.just(tweet("t1", "author@gmail.com", 1)));
+
+        TimelinePage page = timelineService.getTimelinePage(reader(), Cursor.FIRST, 2).block();
+
+        then(page.getTweets()).extracting(Tweet::getId).containsExactly("t1");
+        then(page.getNext().getId()).isEqualTo("deleted");
+    }
+
+    @Test
+    @DisplayName("HYBRID 모드에서는 타임라인과 셀럽 트윗을 최신순으로 병합하고 중복을 뺀다")
+    public void readHybrid() {
+        timelineService.setBackfilled(true);
+        // t2 는 셀럽이 되기 전에 fan-out 되어 타임라인에도 있다.
+        given(timelineRepository.findAllByOwnerEmail("reader@gmail.com", Cursor.FIRST, 3))
+                .willReturn(Flux.just(entry("t1", 1), entry("t2", 2), entry("t5", 5)));
+        given(tweetRepository.findAllById(Arrays.asList("t1", "t2", "t5")))
+                .willReturn(Flux.just(tweet("t1", "author@gmail.com", 1), tweet("t2", "celebrity@gmail.com", 2), tweet("t5", "author@gmail.com", 5)));
+        givenTweets("celebrity@gmail.com", tweet("t0", "celebrity@gmail.com", 0), tweet("t2", "celebrity@gmail.com", 2), tweet("t3", "celebrity@gmail.com", 3));
+
+        StepVerifier.create(timelineService.getTimeline(reader(), Cursor.FIRST, 3).map(Tweet::getId))
+                .expectNext("t0", "t1", "t2")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("작성일이 없는 트윗은 Mongo 의 최신순 정렬처럼 맨 뒤에 온다")
+    public void readWithoutCreatedDate() {
+        timelineService.setBackfilled(true);
+        given(timelineRepository.findAllByOwnerEmail("reader@gmail.com", Cursor.FIRST, 3))
+                .willReturn(Flux.just(entry("t1", 1), Timeline.builder().ownerEmail("reader@gmail.com").tweetId("undated").build()));
+        given(tweetRepository.findAllById(Arrays.asList("t1", "undated")))
+                .willReturn(Flux.just(tweet("t1", "author@gmail.com", 1), Tweet.builder().id("undated").authorEmail("author@gmail.com").build()));
+        givenTweets("celebrity@gmail.com", tweet("t2", "celebrity@gmail.com", 2),
+                Tweet.builder().id("undated2").authorEmail("celebrity@gmail.com").build());
+
+        StepVerifier.create(timelineService.getTimeline(reader(), Cursor.FIRST, 3).map(Tweet::getId))
+                .expectNext("t1", "t2", "undated2")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("PULL 모드에서도 작성일이 없는 트윗은 맨 뒤에 온다")
+    public void pullWithoutCreatedDate() {
+        appProperties.setTimelineMode(TimelineMode.PULL);
+        givenTweets("reader@gmail.com", Tweet.builder().id("undated").authorEmail("reader@gmail.com").build());
+        givenTweets("author@gmail.com", tweet("t1", "author@gmail.com", 1));
+        givenTweets("celebrity@gmail.com", tweet("t2", "celebrity@gmail.com", 2));
+
+        StepVerifier.create(timelineService.getTimeline(reader(), Cursor.FIRST, 10).map(Tweet::getId))
+                .expectNext("t1", "t2", "undated")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("PULL 모드에서 팔로잉이 청크 크기보다 많으면 작성자별 쿼리 대신 $in 청크로 읽는다")
+    public void pullManyFollowingsInChunks() {
+        appProperties.setTimelineMode(TimelineMode.PULL);
+        appProperties.setTimelineInQueryChunkSize(2);
+        given(tweetRepository.findAllByAuthorEmailIn(eq(Arrays.asList("reader@gmail.com", "author@gmail.com")), any(Cursor.class), anyInt()))
+                .willReturn(Flux.just(tweet("t1", "author@gmail.com", 1), tweet("t3", "reader@gmail.com", 3)));
+        given(tweetRepository.findAllByAuthorEmailIn(eq(Collections.singletonList("celebrity@gmail.com")), any(Cursor.class), anyInt()))
+                .willReturn(Flux.just(tweet("t2", "celebrity@gmail.com", 2)));
+
+        StepVerifier.create(timelineService.getTimeline(reader(), Cursor.FIRST, 10).map(Tweet::getId))
+                .expectNext("t1", "t2", "t3")
+                .verifyComplete();
+        verify(tweetRepository, never()).findAllByAuthorEmailOrderByCreatedDateDesc(any(), any(Cursor.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("셀럽에서 빠진 계정의 최근 트윗을 팔로워 타임라인에 채운다")
+    public void backfillDemoted() {
+        given(celebrityRegistry.contains("celebrity@gmail.com")).willReturn(false);
+        given(tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc("celebrity@gmail.com"))
+                .willReturn(Flux.just(tweet("t1", "celebrity@gmail.com", 1)));
+
+        timelineService.backfillDemoted("celebrity@gmail.com").block();
+
+        List<Timeline> entries = written();
+        then(owners(entries)).containsExactly("celebrity@gmail.com", "reader@gmail.com");
+        then(entries.stream().map(Timeline::getTweetId)).containsOnly("t1");
+    }
+
+    private void givenTweets(String authorEmail, Tweet... tweets) {
+        given(tweetRepository.findAllByAuthorEmailOrderByCreatedDateDesc(eq(authorEmail), any(Cursor.class), anyInt()))
+                .willReturn(Flux.just(tweets));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Timeline> written() {
+        ArgumentCaptor<List<Timeline>> captor = ArgumentCaptor.forClass(List.class);
+        verify(timelineRepository).upsertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private List<String> owners(List<Timeline> entries) {
+        return entries.stream().map(Timeline::getOwnerEmail).collect(Collectors.toList());
+    }
+
+    private Account reader() {
+        return Account.builder().accountNo(1L).email("reader@gmail.com").build();
+    }
+
+    private Follow follow(Long followerNo, Long followingNo) {
+        return Follow.builder().followerNo(followerNo).followingNo(followingNo).build();
+    }
+
+    private Timeline entry(String tweetId, int minutesAgo) {
+        return Timeline.builder().ownerEmail("reader@gmail.com").tweetId(tweetId).createdDate(NOW.minusMinutes(minutesAgo)).build();
+    }
+
+    // minutesAgo 가 작을수록 최신이다.
+    private Tweet tweet(String id, String authorEmail, int minutesAgo) {
+        return Tweet.builder().id(id).authorEmail(authorEmail).createdDate(NOW.minusMinutes(minutesAgo)).build();
+    }
+}
@@ -0,0 +1,95 @@
+package me.dblab.twitterclone.tweet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class LikeCounterTest {
+
+    @Autowired
+    LikeCounter likeCounter;
+
+    @Autowired
+    TweetRepository tweetRepository;
+
+    @Autowired
+    TweetService tweetService;
+
+    private Tweet tweet;
+
+    @BeforeEach
+    public void setUp() {
+        likeCounter.flush().block();
+        tweetRepository.deleteAll().block();
+        tweet = tweetRepository.save(Tweet.builder()
+                .content("hot tweet")
+                .createdDate(LocalDateTime.now())
+                .build()).block();
+    }
+
+    @Test
+    @DisplayName("flush 전에도 getTweet 은 쌓인 좋아요 수를 보여준다")
+    public void readYourWrites() {
+        likeCounter.increment(tweet.getId(), 1);
+        likeCounter.increment(tweet.getId(), 1);
+
+        StepVerifier.create(tweetService.getTweet(tweet.getId()))
+                .assertNext(read -> then(read.getCountLike()).isEqualTo(2))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("증가와 flush 가 동시에 일어나도 변화량을 잃지 않는다")
+    public void concurrentIncrementsAndFlushes() {
+        Flux<Void> increments = Flux.range(0, 10000)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .doOnNext(i -> likeCounter.increment(tweet.getId(), 1))
+                .sequential()
+                .thenMany(Flux.empty());
+        Flux<Void> flushes = Flux.range(0, 20)
+                .concatMap(i -> likeCounter.flush().subscribeOn(Schedulers.parallel()));
+
+        Mono.when(increments, flushes).block();
+        likeCounter.flush().block();
+
+        then(likeCounter.pending(tweet.getId())).isZero();
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(flushed -> then(flushed.getCountLike()).isEqualTo(10000))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("같은 트윗에 +1/-1 이 섞여 들어오는 중에 flush 해도 변화량을 두 번 반영하지 않는다")
+    public void mixedIncrementsAndFlushes() {
+        Flux<Void> increments = Flux.range(0, 20000)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .doOnNext(i -> likeCounter.increment(tweet.getId(), i % 2 == 0 ? 1 : -1))
+                .sequential()
+                .thenMany(Flux.empty());
+        Flux<Void> flushes = Flux.range(0, 50)
+                .concatMap(i -> likeCounter.flush().subscribeOn(Schedulers.parallel()));
+
+        Mono.when(increments, flushes).block();
+        likeCounter.flush().block();
+
+        then(likeCounter.pending(tweet.getId())).isZero();
+        StepVerifier.create(tweetRepository.findById(tweet.getId()))
+                .assertNext(flushed -> then(flushed.getCountLike()).isZero())
+                .verifyComplete();
+    }
+}
@@ -1,5 +1,7 @@
 package me.dblab.twitterclone.tweet;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import me.dblab.twitterclone.account.Account;
 import me.dblab.twitterclone.account.AccountDto;
@@ -7,18 +9,26 @@ import me.dblab.twitterclone.account.AccountRepository;
 import me.dblab.twitterclone.account.AccountService;
 import me.dblab.twitterclone.common.BaseControllerTest;
 import me.dblab.twitterclone.config.jwt.TokenProvider;
+import me.dblab.twitterclone.timeline.TimelineService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.IntStream;
+import static me.dblab.twitterclone.common.Constants.APPLICATION_NDJSON_VALUE;
+import static me.dblab.twitterclone.common.Constants.NEXT_CURSOR_HEADER;
 import static org.assertj.core.api.BDDAssertions.then;
 
 @Slf4j
@@ -33,6 +43,9 @@ public class TweetControllerTest extends BaseControllerTest {
     @Autowired
     TweetService tweetService;
 
+    @Autowired
+    TimelineService timelineService;
+
     @Autowired
     AccountService accountService;
 
@@ -45,6 +58,9 @@ public class TweetControllerTest extends BaseControllerTest {
     @Autowired
     AccountRepository accountRepository;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     private final String accountUrl = "/api/users";
 
     @BeforeEach
@@ -95,6 +111,44 @@ public class TweetControllerTest extends BaseControllerTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("NDJSON 으로 트윗을 한 번에 생성하고 항목별 결과를 받는다")
+    public void saveTweets() throws Exception {
+        String body = "{\"content\":\"경성대학교 #졸업\"}\n"
+                + "{\"content\":\"   \"}\n"
+                + "{\"content\":\"소프트웨어학과\"}\n";
+
+        String response = webTestClient.post()
+                .uri(tweetUrl + "/batch")
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .accept(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .bodyValue(body)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : Objects.requireNonNull(response).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        then(results).extracting(result -> result.get("index").asLong()).containsExactly(0L, 1L, 2L);
+        then(results).extracting(result -> result.get("status").asInt()).containsExactly(201, 400, 201);
+
+        StepVerifier.create(tweetRepository.findById(results.get(0).get("id").asText()))
+                .assertNext(tweetObj -> {
+                    then(tweetObj.getAuthorEmail()).isEqualTo(appProperties.getTestEmail());
+                    then(tweetObj.getHashTag()).containsExactly("졸업");
+                })
+                .verifyComplete();
+        StepVerifier.create(tweetRepository.findAllByAuthorEmail(currentAccount()).count())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
     @Test
     @DisplayName("정상적으로 트윗을 삭제")
     public void deleteTweet() throws Exception {
@@ -233,6 +287,157 @@ public class TweetControllerTest extends BaseControllerTest {
                 }).verifyComplete();
     }
 
+    @Test
+    @DisplayName("피드를 NDJSON 과 SSE 로 스트리밍")
+    public void streamTweetList() {
+        IntStream.rangeClosed(1, 3).forEach(index ->
+                webTestClient.post()
+                        .uri(tweetUrl)
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .body(Mono.just(new TweetDto("스트리밍" + index)), TweetDto.class)
+                        .exchange()
+                        .expectStatus()
+                        .isCreated());
+
+        Flux<Tweet> ndjson = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(tweetUrl).queryParam("limit", 2).build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .accept(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(Tweet.class)
+                .getResponseBody();
+
+        StepVerifier.create(ndjson)
+                .assertNext(tweet -> then(tweet.getContent()).isEqualTo("스트리밍3"))
+                .assertNext(tweet -> then(tweet.getContent()).isEqualTo("스트리밍2"))
+                .verifyComplete();
+
+        Flux<ServerSentEvent<Tweet>> events = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(tweetUrl).queryParam("limit", 2).build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Tweet>>() {})
+                .getResponseBody();
+
+        // 마지막 이벤트의 id 로 다음 페이지를 이어 읽는다.
+        String lastId = events.map(ServerSentEvent::id).blockLast();
+        StepVerifier.create(webTestClient.get()
+                        .uri(uriBuilder -> uriBuilder.path(tweetUrl).queryParam("cursor", lastId).build())
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .accept(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                        .exchange()
+                        .returnResult(Tweet.class)
+                        .getResponseBody())
+                .assertNext(tweet -> then(tweet.getContent()).isEqualTo("스트리밍1"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("지워진 트윗 때문에 페이지가 limit 보다 작아도 다음 cursor 로 이어 읽는다")
+    public void pageTweetListWithDeletedTweet() throws Exception {
+        timelineService.setBackfilled(true);
+        IntStream.rangeClosed(1, 3).forEach(index ->
+                webTestClient.post()
+                        .uri(tweetUrl)
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .body(Mono.just(new TweetDto("페이지" + index)), TweetDto.class)
+                        .exchange()
+                        .expectStatus()
+                        .isCreated());
+        // 정리 작업이 타임라인 항목을 지우기 전의 상태
+        Tweet deleted = tweetRepository.findAllByAuthorEmail(currentAccount())
+                .filter(tweet -> tweet.getContent().equals("페이지2"))
+                .blockFirst();
+        tweetRepository.deleteById(deleted.getId()).block();
+
+        EntityExchangeResult<List<Tweet>> first = getTweetList("2", null);
+        then(first.getResponseBody()).extracting(Tweet::getContent).containsExactly("페이지3");
+        String next = first.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER);
+        then(next).isNotNull();
+
+        EntityExchangeResult<List<Tweet>> second = getTweetList("2", next);
+        then(second.getResponseBody()).extracting(Tweet::getContent).containsExactly("페이지1");
+        then(second.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("limit 은 1 이상으로 맞추고, 잘못된 cursor 는 Bad Request")
+    public void tweetListLimitAndBadCursor() {
+        IntStream.rangeClosed(1, 2).forEach(index ->
+                webTestClient.post()
+                        .uri(tweetUrl)
+                        .header(HttpHeaders.AUTHORIZATION, jwt)
+                        .body(Mono.just(new TweetDto("limit" + index)), TweetDto.class)
+                        .exchange()
+                        .expectStatus()
+                        .isCreated());
+
+        EntityExchangeResult<List<Tweet>> page = getTweetList("0", null);
+        then(page.getResponseBody()).extracting(Tweet::getContent).containsExactly("limit2");
+        then(page.getResponseHeaders().getFirst(NEXT_CURSOR_HEADER)).isNotNull();
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(tweetUrl).queryParam("cursor", "invalid!").build())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    private EntityExchangeResult<List<Tweet>> getTweetList(String limit, String cursor) {
+        return webTestClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path(tweetUrl).queryParam("limit", limit);
+                    if (cursor != null) {
+                        uriBuilder.queryParam("cursor", cursor);
+                    }
+                    return uriBuilder.build();
+                })
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Tweet.class)
+                .returnResult();
+    }
+
+    @Test
+    @DisplayName("피드의 트윗에 작성자와 좋아요 여부를 붙여서 내려준다")
+    public void getTweetListWithAuthorAndLike() throws Exception {
+        createTweet(new TweetDto("좋아요 누를 트윗"));
+        createTweet(new TweetDto("그냥 트윗"));
+        Tweet liked = tweetRepository.findAllByAuthorEmail(currentAccount())
+                .filter(tweet -> tweet.getContent().equals("좋아요 누를 트윗"))
+                .blockFirst();
+        webTestClient.post()
+                .uri("/api/tweet/favorites/" + liked.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        webTestClient.get()
+                .uri(tweetUrl)
+                .header(HttpHeaders.AUTHORIZATION, jwt)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("[0].content").isEqualTo("그냥 트윗")
+                .jsonPath("[0].author.email").isEqualTo(appProperties.getTestEmail())
+                .jsonPath("[0].author.nickname").isEqualTo(appProperties.getTestNickname())
+                .jsonPath("[0].liked").isEqualTo(false)
+                .jsonPath("[1].id").isEqualTo(liked.getId())
+                .jsonPath("[1].liked").isEqualTo(true);
+    }
+
     @Test
     @DisplayName("유저가 팔로잉한 유저들의 게시물만 불러오기")
     public void getTweetList() {